@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.auth.generator.metrics.PrometheusTextfileExporter;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application the regular way and in fast-start mode. The improvement is checked by the
+ * work done at startup (bean definitions registered and singletons created) and by startup time.
+ * Durations measured in one JVM depend on the order of boots, so both modes are warmed up first
+ * and then booted alternately, and their medians are compared. AppCDS isn't used by these boots,
+ * its effect is only visible in a fresh JVM.
+ */
+@Slf4j
+class FastStartIT {
+
+  private static final int WARMUP_BOOTS = 2;
+  private static final int MEASURED_BOOTS = 7;
+  private static final double MAX_DURATION_RATIO = 0.9;
+
+  @Test
+  void shouldDoLessWorkAtStartupInFastStartMode() {
+    var regular = boot("boot-only");
+    var fastStart = boot("boot-only", "fast-start");
+
+    log.info("Regular startup: {}", regular);
+    log.info("Fast-start startup: {}", fastStart);
+    assertThat(fastStart.beanDefinitions).isLessThan(regular.beanDefinitions);
+    assertThat(fastStart.singletons).isLessThan(regular.singletons);
+  }
+
+  @Test
+  void shouldStartFasterInFastStartMode() {
+    for (var i = 0; i < WARMUP_BOOTS; i++) {
+      boot("boot-only");
+      boot("boot-only", "fast-start");
+    }
+    var regularDurations = new ArrayList<Long>();
+    var fastStartDurations = new ArrayList<Long>();
+    for (var i = 0; i < MEASURED_BOOTS; i++) {
+      regularDurations.add(boot("boot-only").durationMillis);
+      fastStartDurations.add(boot("boot-only", "fast-start").durationMillis);
+    }
+
+    var regularMedian = median(regularDurations);
+    var fastStartMedian = median(fastStartDurations);
+    log.info("Median startup: regular {} ms, fast-start {} ms", regularMedian, fastStartMedian);
+    assertThat((double) fastStartMedian).isLessThan(regularMedian * MAX_DURATION_RATIO);
+  }
+
+  @Test
+  void shouldCreateApplyBeansOnDemandInFastStartMode() {
+    try (var context = start("boot-only", "fast-start")) {
+      var beanFactory = context.getBeanFactory();
+      assertThat(beanFactory.containsSingleton("applyService")).isFalse();
+      assertThat(beanFactory.containsSingleton("prometheusTextfileExporter")).isTrue();
+
+      assertThat(context.getBean(ApplyService.class)).isNotNull();
+      assertThat(context.getBean(PrometheusTextfileExporter.class)).isNotNull();
+    }
+  }
+
+  private StartupStats boot(String... profiles) {
+    var startTime = System.nanoTime();
+    try (var context = start(profiles)) {
+      var beanFactory = context.getBeanFactory();
+      return new StartupStats((System.nanoTime() - startTime) / 1_000_000,
+          beanFactory.getBeanDefinitionCount(), beanFactory.getSingletonNames().length);
+    }
+  }
+
+  private long median(List<Long> durations) {
+    var sorted = new ArrayList<>(durations);
+    sorted.sort(null);
+    return sorted.get(sorted.size() / 2);
+  }
+
+  private ConfigurableApplicationContext start(String... profiles) {
+    return new SpringApplicationBuilder(CamundaAuthCliApplication.class)
+        .profiles(profiles)
+        .run();
+  }
+
+  private static class StartupStats {
+
+    private final long durationMillis;
+    private final int beanDefinitions;
+    private final int singletons;
+
+    StartupStats(long durationMillis, int beanDefinitions, int singletons) {
+      this.durationMillis = durationMillis;
+      this.beanDefinitions = beanDefinitions;
+      this.singletons = singletons;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d ms, %d bean definitions, %d singletons", durationMillis,
+          beanDefinitions, singletons);
+    }
+  }
+}
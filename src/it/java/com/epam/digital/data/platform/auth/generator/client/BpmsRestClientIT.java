@@ -18,27 +18,49 @@ package com.epam.digital.data.platform.auth.generator.client;
 
 import static com.epam.digital.data.platform.auth.generator.config.WireMockConfig.bpmsUrl;
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.delete;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalToJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.epam.digital.data.platform.auth.generator.config.properties.HttpClientProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.PagingProperties;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.CountResultDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 
-@SpringBootTest
+// throttled and slow responses of some tests must not leave the adaptive limit of the shared bpms
+// url below two requests, otherwise concurrent requests of later tests are sent one by one
+@SpringBootTest(properties = {"bpms.concurrency.min-limit=2", "bpms.http.read-timeout=2s"})
 @ActiveProfiles("test")
 class BpmsRestClientIT {
 
@@ -49,6 +71,20 @@ class BpmsRestClientIT {
   private ObjectMapper objectMapper;
   @Autowired
   private BpmsRestClient restClient;
+  @Autowired
+  private HttpClientProperties httpClientProperties;
+  @Autowired
+  private PagingProperties pagingProperties;
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @AfterEach
+  void reset() {
+    httpClientProperties.setCompression(new HttpClientProperties.Compression());
+    pagingProperties.setPageSize(new PagingProperties().getPageSize());
+    bpmsWireMockServer.resetAll();
+    meterRegistry.clear();
+  }
 
   @Test
   void shouldDeleteAuthorization() throws JsonProcessingException {
@@ -105,4 +141,308 @@ class BpmsRestClientIT {
     assertThat(result).isNotNull();
     assertThat(result).isEqualTo(expectedCountResponse);
   }
-}
\ No newline at end of file
+
+  @Test
+  void shouldCreateAuthorizationsConcurrently() throws JsonProcessingException {
+    var processDefinitionBody = List.of(new ProcessDefinitionAuthDto("officer", "Process_1"));
+    var processInstanceBody = List.of("officer");
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-definition/create"))
+            .withRequestBody(equalToJson(objectMapper.writeValueAsString(processDefinitionBody)))
+            .willReturn(aResponse().withFixedDelay(1000)
+                .withBody(objectMapper.writeValueAsString(new CountResultDto(1))))));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .withRequestBody(equalToJson(objectMapper.writeValueAsString(processInstanceBody)))
+            .willReturn(aResponse().withFixedDelay(1000)
+                .withBody(objectMapper.writeValueAsString(new CountResultDto(1))))));
+
+    var startTime = System.nanoTime();
+    var processInstanceResult = restClient.createProcessInstanceAuthorizationsAsync(bpmsUrl,
+        "token", processInstanceBody);
+    var processDefinitionResult = restClient.createProcessDefinitionAuthorizations(bpmsUrl,
+        "token", processDefinitionBody);
+    var createdCount = processDefinitionResult.getCount()
+        + processInstanceResult.join().getCount();
+    var durationMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+    assertThat(createdCount).isEqualTo(2);
+    // both requests were in flight at the same time
+    assertThat(durationMillis).isLessThan(1800);
+  }
+
+  @Test
+  void shouldGetAuthorizationsByPages() throws JsonProcessingException {
+    pagingProperties.setPageSize(1000);
+    var expectedAuthorizations = IntStream.range(0, 25_500)
+        .mapToObj(i -> new AuthResponseDto(String.valueOf(i), "officer", "business-process-" + i,
+            6, Set.of("READ", "CREATE_INSTANCE")))
+        .collect(Collectors.toList());
+    stubAuthorizationsCount("6", expectedAuthorizations.size());
+    for (var firstResult = 0; firstResult < expectedAuthorizations.size(); firstResult += 1000) {
+      var page = expectedAuthorizations.subList(firstResult,
+          Math.min(firstResult + 1000, expectedAuthorizations.size()));
+      bpmsWireMockServer.addStubMapping(
+          stubFor(get(urlPathEqualTo("/api/authorization"))
+              .withQueryParam("type", equalTo("1"))
+              .withQueryParam("resourceType", equalTo("6"))
+              .withQueryParam("sortBy", absent())
+              .withQueryParam("firstResult", equalTo(String.valueOf(firstResult)))
+              .withQueryParam("maxResults", equalTo("1000"))
+              .withHeader("X-Access-Token", equalTo("token"))
+              .willReturn(aResponse().withBody(objectMapper.writeValueAsString(page)))));
+    }
+
+    List<AuthResponseDto> result;
+    try (var authorizations = restClient.getAuthorizations(bpmsUrl, "token",
+        AuthResourceType.PROCESS_DEFINITION)) {
+      result = authorizations.collect(Collectors.toList());
+    }
+
+    assertThat(result).isEqualTo(expectedAuthorizations);
+    verify(26, getRequestedFor(urlPathEqualTo("/api/authorization")));
+  }
+
+  @Test
+  void shouldGetAllPagesOfAuthorizationsWithTheSameResourceId() throws JsonProcessingException {
+    pagingProperties.setPageSize(10);
+    var expectedAuthorizations = IntStream.range(0, 25)
+        .mapToObj(i -> new AuthResponseDto("auth-" + i, "role-" + i, "*", 8, Set.of("CREATE")))
+        .collect(Collectors.toList());
+    stubAuthorizationsCount("8", expectedAuthorizations.size());
+    for (var firstResult = 0; firstResult < expectedAuthorizations.size(); firstResult += 10) {
+      var page = expectedAuthorizations.subList(firstResult,
+          Math.min(firstResult + 10, expectedAuthorizations.size()));
+      // camunda keeps its default order by id only when no other sorting is requested
+      bpmsWireMockServer.addStubMapping(
+          stubFor(get(urlPathEqualTo("/api/authorization"))
+              .withQueryParam("resourceType", equalTo("8"))
+              .withQueryParam("sortBy", absent())
+              .withQueryParam("sortOrder", absent())
+              .withQueryParam("firstResult", equalTo(String.valueOf(firstResult)))
+              .withQueryParam("maxResults", equalTo("10"))
+              .willReturn(aResponse().withBody(objectMapper.writeValueAsString(page)))));
+    }
+
+    List<AuthResponseDto> result;
+    try (var authorizations = restClient.getAuthorizations(bpmsUrl, "token",
+        AuthResourceType.PROCESS_INSTANCE)) {
+      result = authorizations.collect(Collectors.toList());
+    }
+
+    assertThat(result).isEqualTo(expectedAuthorizations);
+    verify(3, getRequestedFor(urlPathEqualTo("/api/authorization")));
+  }
+
+  @Test
+  void shouldNotRequestPagesWhenThereAreNoAuthorizations() throws JsonProcessingException {
+    stubAuthorizationsCount("8", 0);
+
+    var result = restClient.getAuthorizations(bpmsUrl, "token",
+        AuthResourceType.PROCESS_INSTANCE).collect(Collectors.toList());
+
+    assertThat(result).isEmpty();
+    verify(0, getRequestedFor(urlPathEqualTo("/api/authorization")));
+  }
+
+  @Test
+  void shouldFailWhenPageIsNotReceived() throws JsonProcessingException {
+    pagingProperties.setPageSize(10);
+    stubAuthorizationsCount("6", 30);
+    var page = IntStream.range(0, 10)
+        .mapToObj(i -> new AuthResponseDto(String.valueOf(i), "officer", "Process_" + i, 6,
+            Set.of("READ", "CREATE_INSTANCE")))
+        .collect(Collectors.toList());
+    bpmsWireMockServer.addStubMapping(
+        stubFor(get(urlPathEqualTo("/api/authorization"))
+            .willReturn(aResponse().withBody(objectMapper.writeValueAsString(page)))));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(get(urlPathEqualTo("/api/authorization"))
+            .withQueryParam("firstResult", equalTo("10"))
+            .willReturn(aResponse().withStatus(400))));
+
+    var authorizations = restClient.getAuthorizations(bpmsUrl, "token",
+        AuthResourceType.PROCESS_DEFINITION);
+
+    assertThrows(HttpClientErrorException.BadRequest.class,
+        () -> authorizations.collect(Collectors.toList()));
+  }
+
+  @Test
+  void shouldDeleteAuthorizationById() {
+    bpmsWireMockServer.addStubMapping(
+        stubFor(delete(urlPathEqualTo("/api/authorization/auth-id"))
+            .withHeader("X-Access-Token", equalTo("token"))
+            .willReturn(aResponse().withStatus(204))));
+
+    restClient.deleteAuthorization(bpmsUrl, "token", "auth-id");
+
+    verify(deleteRequestedFor(urlPathEqualTo("/api/authorization/auth-id")));
+  }
+
+  @Test
+  void shouldSendCompressedBodyWhenItExceedsThreshold() throws JsonProcessingException {
+    httpClientProperties.getCompression().setEnabled(true);
+    httpClientProperties.getCompression().setMinSize(DataSize.ofKilobytes(1));
+    var expectedCountResponse = new CountResultDto(500);
+    var body = IntStream.range(0, 500)
+        .mapToObj(i -> new ProcessDefinitionAuthDto("officer", "business-process-" + i))
+        .collect(Collectors.toList());
+    var serializedBody = objectMapper.writeValueAsString(body);
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-definition/create"))
+            .withHeader("Content-Encoding", equalTo("gzip"))
+            .withRequestBody(equalToJson(serializedBody))
+            .willReturn(
+                aResponse().withBody(objectMapper.writeValueAsString(expectedCountResponse)))));
+
+    var result = restClient.createProcessDefinitionAuthorizations(bpmsUrl, "token", body);
+
+    assertThat(result).isEqualTo(expectedCountResponse);
+    var request = bpmsWireMockServer.findAll(
+        postRequestedFor(urlPathEqualTo("/api/extended/authorizations/process-definition/create"))
+            .withHeader("Content-Encoding", equalTo("gzip"))).get(0);
+    // the body is streamed, so its size on the wire is known from metrics only
+    assertThat(request.containsHeader("Content-Length")).isFalse();
+    assertThat(meterRegistry.get("bpms.client.request.size").summary().totalAmount())
+        .isLessThan(serializedBody.length() / 4.0);
+  }
+
+  @Test
+  void shouldSendUncompressedBodyBelowThreshold() throws JsonProcessingException {
+    httpClientProperties.getCompression().setEnabled(true);
+    var expectedCountResponse = new CountResultDto(1);
+    var body = List.of("officer");
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .withHeader("Content-Encoding", absent())
+            .withRequestBody(equalToJson(objectMapper.writeValueAsString(body)))
+            .willReturn(
+                aResponse().withBody(objectMapper.writeValueAsString(expectedCountResponse)))));
+
+    var result = restClient.createProcessInstanceAuthorizations(bpmsUrl, "token", body);
+
+    assertThat(result).isEqualTo(expectedCountResponse);
+  }
+
+  @Test
+  void shouldSendBufferedBodyBelowThresholdByEveryAttempt() throws JsonProcessingException {
+    httpClientProperties.getCompression().setEnabled(true);
+    var body = List.of("officer");
+    var serializedBody = objectMapper.writeValueAsString(body);
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .inScenario("buffered").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("available")));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .inScenario("buffered").whenScenarioStateIs("available")
+            .willReturn(
+                aResponse().withBody(objectMapper.writeValueAsString(new CountResultDto(1))))));
+
+    restClient.createProcessInstanceAuthorizations(bpmsUrl, "token", body);
+
+    verify(2, postRequestedFor(
+        urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+        .withHeader("Content-Encoding", absent())
+        .withRequestBody(equalToJson(serializedBody)));
+  }
+
+  @Test
+  void shouldRetryFailedRequestWithRetryableStatus() throws JsonProcessingException {
+    var expectedCountResponse = new CountResultDto(3);
+    bpmsWireMockServer.addStubMapping(
+        stubFor(delete(urlPathEqualTo("/api/extended/authorizations/delete"))
+            .inScenario("retry").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("available")));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(delete(urlPathEqualTo("/api/extended/authorizations/delete"))
+            .inScenario("retry").whenScenarioStateIs("available")
+            .willReturn(
+                aResponse().withBody(objectMapper.writeValueAsString(expectedCountResponse)))));
+
+    var result = restClient.deleteAuthorizations(bpmsUrl, "token");
+
+    assertThat(result).isEqualTo(expectedCountResponse);
+    verify(2, deleteRequestedFor(urlPathEqualTo("/api/extended/authorizations/delete")));
+  }
+
+  @Test
+  void shouldRecordMetricsOfEveryAttempt() throws JsonProcessingException {
+    var responseBody = objectMapper.writeValueAsString(new CountResultDto(3));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .inScenario("metrics").whenScenarioStateIs(STARTED)
+            .willReturn(aResponse().withStatus(503))
+            .willSetStateTo("available")));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-instance/create"))
+            .inScenario("metrics").whenScenarioStateIs("available")
+            .willReturn(aResponse().withBody(responseBody))));
+
+    restClient.createProcessInstanceAuthorizations(bpmsUrl, "token", List.of("officer"));
+
+    assertThat(meterRegistry.get("bpms.client.requests").tag("bpms", bpmsUrl)
+        .tag("operation", "process-instance-create").tag("status", "503").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("bpms.client.requests").tag("status", "200").timer().count())
+        .isEqualTo(1);
+    assertThat(meterRegistry.get("bpms.client.retries").counter().count()).isEqualTo(1);
+    var requestSize = meterRegistry.get("bpms.client.request.size").summary();
+    assertThat(requestSize.count()).isEqualTo(2);
+    assertThat(requestSize.totalAmount()).isEqualTo(2 * "[\"officer\"]".length());
+    assertThat(meterRegistry.get("bpms.client.response.size").summary().totalAmount())
+        .isEqualTo(responseBody.length());
+  }
+
+  @Test
+  void shouldNotRetryRequestWithNonRetryableStatus() {
+    bpmsWireMockServer.addStubMapping(
+        stubFor(delete(urlPathEqualTo("/api/extended/authorizations/delete"))
+            .willReturn(aResponse().withStatus(400))));
+
+    assertThrows(HttpClientErrorException.BadRequest.class,
+        () -> restClient.deleteAuthorizations(bpmsUrl, "token"));
+
+    verify(1, deleteRequestedFor(urlPathEqualTo("/api/extended/authorizations/delete")));
+  }
+
+  @Test
+  void shouldNotRetryCreateAfterReadTimeout() throws JsonProcessingException {
+    var body = List.of(new ProcessDefinitionAuthDto("officer", "Process_1"));
+    bpmsWireMockServer.addStubMapping(
+        stubFor(post(urlPathEqualTo("/api/extended/authorizations/process-definition/create"))
+            .willReturn(aResponse().withFixedDelay(3000)
+                .withBody(objectMapper.writeValueAsString(new CountResultDto(1))))));
+
+    assertThrows(ResourceAccessException.class,
+        () -> restClient.createProcessDefinitionAuthorizations(bpmsUrl, "token", body));
+
+    verify(1, postRequestedFor(
+        urlPathEqualTo("/api/extended/authorizations/process-definition/create")));
+  }
+
+  @Test
+  void shouldIgnoreAlreadyDeletedAuthorization() {
+    bpmsWireMockServer.addStubMapping(
+        stubFor(delete(urlPathEqualTo("/api/authorization/auth-id"))
+            .willReturn(aResponse().withStatus(404))));
+
+    restClient.deleteAuthorization(bpmsUrl, "token", "auth-id");
+
+    verify(1, deleteRequestedFor(urlPathEqualTo("/api/authorization/auth-id")));
+  }
+
+  private void stubAuthorizationsCount(String resourceType, long count)
+      throws JsonProcessingException {
+    bpmsWireMockServer.addStubMapping(
+        stubFor(get(urlPathEqualTo("/api/authorization/count"))
+            .withQueryParam("type", equalTo("1"))
+            .withQueryParam("resourceType", equalTo(resourceType))
+            .withHeader("X-Access-Token", equalTo("token"))
+            .willReturn(
+                aResponse().withBody(objectMapper.writeValueAsString(new CountResultDto(count))))));
+  }
+}
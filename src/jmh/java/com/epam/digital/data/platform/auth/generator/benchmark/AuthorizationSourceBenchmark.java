@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.benchmark;
+
+import com.epam.digital.data.platform.auth.generator.client.BpmsRestClient;
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.dto.delta.AuthorizationDeltaDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationPlan;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import com.epam.digital.data.platform.auth.generator.service.BpmsAuthServiceImpl;
+import com.epam.digital.data.platform.auth.generator.util.AuthorizationFingerprintUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Building of the plan of (process definition, role) pairs with their deduplication, iterating
+ * it, fingerprint calculation and calculation of the sync delta against authorizations read from
+ * bpms, as done by authorization creation, sync and plan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AuthorizationSourceBenchmark {
+
+  private static final String BPMS_URL = "http://bpms";
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int pairs;
+
+  private AuthorizationSource authorizationSource;
+  private AuthorizationSource duplicatedSource;
+  private AuthorizationSource bufferedSource;
+  private BpmsAuthServiceImpl authService;
+
+  @Setup
+  public void setUp() {
+    authorizationSource = SyntheticConfigs.authorizationSource(pairs);
+    // every pair is listed twice, like a process definition repeated in several config files
+    duplicatedSource = consumer -> {
+      authorizationSource.forEachPair(consumer);
+      authorizationSource.forEachPair(consumer);
+    };
+    bufferedSource = authorizationSource.buffered();
+
+    // half of the pairs are in bpms already and the other half of bpms authorizations are stale
+    var existingAuthorizations = SyntheticConfigs.authResponses(pairs * 3 / 2)
+        .subList(pairs / 2, pairs * 3 / 2);
+    var bpmsRestClient = Mockito.mock(BpmsRestClient.class);
+    Mockito.when(bpmsRestClient.getAuthorizations(BPMS_URL, "token",
+            AuthResourceType.PROCESS_DEFINITION))
+        .thenAnswer(invocation -> existingAuthorizations.stream());
+    Mockito.when(bpmsRestClient.getAuthorizations(BPMS_URL, "token",
+            AuthResourceType.PROCESS_INSTANCE))
+        .thenAnswer(invocation -> Stream.empty());
+    authService = new BpmsAuthServiceImpl(bpmsRestClient, new BatchProperties(), Runnable::run,
+        new SimpleMeterRegistry());
+  }
+
+  @Benchmark
+  public AuthorizationPlan buildPlan() {
+    return AuthorizationPlan.from(authorizationSource);
+  }
+
+  @Benchmark
+  public AuthorizationPlan buildPlanOfDuplicatedPairs() {
+    return AuthorizationPlan.from(duplicatedSource);
+  }
+
+  @Benchmark
+  public void iterateBuffered(Blackhole blackhole) {
+    bufferedSource.forEachPair((processDefinitionId, role) -> {
+      blackhole.consume(processDefinitionId);
+      blackhole.consume(role);
+    });
+  }
+
+  @Benchmark
+  public String fingerprint() {
+    return AuthorizationFingerprintUtil.fingerprint(BPMS_URL, authorizationSource);
+  }
+
+  @Benchmark
+  public AuthorizationDeltaDto planAuthorizations() {
+    return authService.planAuthorizations(BPMS_URL, "token", authorizationSource);
+  }
+}
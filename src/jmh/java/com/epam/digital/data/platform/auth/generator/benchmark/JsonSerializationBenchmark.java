@@ -0,0 +1,190 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.benchmark;
+
+import com.epam.digital.data.platform.auth.generator.client.BpmsRestClient;
+import com.epam.digital.data.platform.auth.generator.config.GeneralConfig;
+import com.epam.digital.data.platform.auth.generator.config.properties.ConcurrencyProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.HttpClientProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.PagingProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.RetryProperties;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.CountResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Request and response bodies of bpms client, serialized by the writers and readers the client
+ * builds and sent through its streamed request path to an in-memory bpms. A body of
+ * process-definition authorizations has as many pairs as a chunk sent to bpms, a response of
+ * existing authorizations has as many entries as sync reads from bpms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class JsonSerializationBenchmark {
+
+  private static final String BPMS_URL = "http://bpms";
+  private static final String TOKEN = "token";
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int pairs;
+
+  private BpmsRestClient bpmsRestClient;
+  private List<ProcessDefinitionAuthDto> processDefinitionAuths;
+
+  @Setup
+  public void setUp() throws IOException {
+    var generalConfig = new GeneralConfig();
+    var objectMapper = generalConfig.objectMapper();
+    var pagingProperties = new PagingProperties();
+    // existing authorizations are read in a single page, as a response of the given size
+    pagingProperties.setPageSize(pairs);
+    var restTemplate = new RestTemplate(new InMemoryBpmsRequestFactory(
+        objectMapper.writeValueAsBytes(new CountResultDto(pairs)),
+        objectMapper.writeValueAsBytes(SyntheticConfigs.authResponses(pairs))));
+    bpmsRestClient = new BpmsRestClient(restTemplate, objectMapper, new HttpClientProperties(),
+        pagingProperties, Runnable::run, Runnable::run, new ConcurrencyProperties(),
+        generalConfig.bpmsRetryTemplate(new RetryProperties()), new SimpleMeterRegistry());
+    processDefinitionAuths = SyntheticConfigs.processDefinitionAuths(pairs);
+  }
+
+  @Benchmark
+  public CountResultDto createProcessDefinitionAuthorizations() {
+    return bpmsRestClient.createProcessDefinitionAuthorizations(BPMS_URL, TOKEN,
+        processDefinitionAuths);
+  }
+
+  @Benchmark
+  public List<AuthResponseDto> getAuthorizations() {
+    try (var authorizations = bpmsRestClient.getAuthorizations(BPMS_URL, TOKEN,
+        AuthResourceType.PROCESS_DEFINITION)) {
+      return authorizations.collect(Collectors.toList());
+    }
+  }
+
+  @Benchmark
+  public CountResultDto countAuthorizations() {
+    return bpmsRestClient.countAuthorizations(BPMS_URL, TOKEN,
+        AuthResourceType.PROCESS_DEFINITION);
+  }
+
+  /**
+   * Streamed request bodies are written to nowhere, every request is answered with the count
+   * result except of authorizations page requests.
+   */
+  private static class InMemoryBpmsRequestFactory implements ClientHttpRequestFactory {
+
+    private final byte[] countResult;
+    private final byte[] authResponses;
+
+    InMemoryBpmsRequestFactory(byte[] countResult, byte[] authResponses) {
+      this.countResult = countResult;
+      this.authResponses = authResponses;
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+      var isPageRequest = httpMethod == HttpMethod.GET && !uri.getPath().endsWith("/count");
+      return new InMemoryBpmsRequest(uri, httpMethod, isPageRequest ? authResponses : countResult);
+    }
+  }
+
+  private static class InMemoryBpmsRequest implements ClientHttpRequest,
+      StreamingHttpOutputMessage {
+
+    private final URI uri;
+    private final HttpMethod method;
+    private final byte[] response;
+    private final HttpHeaders headers = new HttpHeaders();
+    private Body body;
+
+    InMemoryBpmsRequest(URI uri, HttpMethod method, byte[] response) {
+      this.uri = uri;
+      this.method = method;
+      this.response = response;
+    }
+
+    @Override
+    public ClientHttpResponse execute() throws IOException {
+      if (body != null) {
+        body.writeTo(OutputStream.nullOutputStream());
+      }
+      return new MockClientHttpResponse(response, HttpStatus.OK);
+    }
+
+    @Override
+    public void setBody(Body body) {
+      this.body = body;
+    }
+
+    @Override
+    public OutputStream getBody() {
+      throw new UnsupportedOperationException("Request body is streamed");
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return headers;
+    }
+
+    @Override
+    public HttpMethod getMethod() {
+      return method;
+    }
+
+    @Override
+    public String getMethodValue() {
+      return method.name();
+    }
+
+    @Override
+    public URI getURI() {
+      return uri;
+    }
+  }
+}
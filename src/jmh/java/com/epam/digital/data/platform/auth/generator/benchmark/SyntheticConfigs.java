@@ -0,0 +1,94 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.benchmark;
+
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthDefinitionDto;
+import com.epam.digital.data.platform.auth.generator.dto.configuration.ProcessDefinitionAuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates configs of the given number of (process definition, role) pairs. Every process
+ * definition has {@link #ROLES_PER_PROCESS} roles taken from a pool of {@link #ROLES} roles, like
+ * regulations with many processes shared by a handful of officer roles.
+ */
+final class SyntheticConfigs {
+
+  static final int ROLES = 50;
+  static final int ROLES_PER_PROCESS = 10;
+
+  private SyntheticConfigs() {
+  }
+
+  static AuthConfigDto authConfig(int pairs) {
+    var processDefinitions = new ArrayList<ProcessDefinitionAuthConfigDto>();
+    for (var process = 0; process * ROLES_PER_PROCESS < pairs; process++) {
+      var roles = new ArrayList<String>(ROLES_PER_PROCESS);
+      for (var i = 0; i < ROLES_PER_PROCESS && process * ROLES_PER_PROCESS + i < pairs; i++) {
+        roles.add(role(process + i));
+      }
+      processDefinitions.add(
+          new ProcessDefinitionAuthConfigDto(processDefinitionId(process), roles));
+    }
+    return new AuthConfigDto(new AuthDefinitionDto(processDefinitions));
+  }
+
+  /**
+   * @return source of the same pairs as {@link #authConfig(int)} without building the config.
+   */
+  static AuthorizationSource authorizationSource(int pairs) {
+    return consumer -> {
+      for (var process = 0; process * ROLES_PER_PROCESS < pairs; process++) {
+        for (var i = 0; i < ROLES_PER_PROCESS && process * ROLES_PER_PROCESS + i < pairs; i++) {
+          consumer.accept(processDefinitionId(process), role(process + i));
+        }
+      }
+    };
+  }
+
+  static List<ProcessDefinitionAuthDto> processDefinitionAuths(int pairs) {
+    var auths = new ArrayList<ProcessDefinitionAuthDto>(pairs);
+    for (var i = 0; i < pairs; i++) {
+      auths.add(new ProcessDefinitionAuthDto(role(i / ROLES_PER_PROCESS + i % ROLES_PER_PROCESS),
+          processDefinitionId(i / ROLES_PER_PROCESS)));
+    }
+    return auths;
+  }
+
+  static List<AuthResponseDto> authResponses(int pairs) {
+    var responses = new ArrayList<AuthResponseDto>(pairs);
+    var permissions = Set.of("READ", "CREATE_INSTANCE");
+    for (var auth : processDefinitionAuths(pairs)) {
+      responses.add(new AuthResponseDto(String.valueOf(responses.size()), auth.getGroupId(),
+          auth.getProcessDefinitionId(), 6, permissions));
+    }
+    return responses;
+  }
+
+  private static String processDefinitionId(int process) {
+    return "process-definition-" + process;
+  }
+
+  private static String role(int index) {
+    return "role-" + index % ROLES;
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.benchmark;
+
+import com.epam.digital.data.platform.auth.generator.config.GeneralConfig;
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigStreamReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Parsing of a config file token by token, as the cli does, compared to binding the whole file to
+ * {@link AuthConfigDto}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class YamlParsingBenchmark {
+
+  @Param({"1000", "10000", "100000", "1000000"})
+  private int pairs;
+
+  private ObjectMapper ymlObjectMapper;
+  private AuthConfigStreamReader authConfigStreamReader;
+  private File configFile;
+
+  @Setup
+  public void setUp() throws IOException {
+    ymlObjectMapper = new GeneralConfig().ymlObjectMapper();
+    authConfigStreamReader = new AuthConfigStreamReader(ymlObjectMapper, new ParsingProperties());
+    configFile = Files.createTempFile("auth-config-" + pairs, ".yml").toFile();
+    ymlObjectMapper.writeValue(configFile, SyntheticConfigs.authConfig(pairs));
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(configFile.toPath());
+  }
+
+  @Benchmark
+  public void streamPairs(Blackhole blackhole) {
+    authConfigStreamReader.readFile(configFile, (processDefinitionId, role) -> {
+      blackhole.consume(processDefinitionId);
+      blackhole.consume(role);
+    });
+  }
+
+  @Benchmark
+  public AuthConfigDto bindConfig() throws IOException {
+    return ymlObjectMapper.readValue(configFile, AuthConfigDto.class);
+  }
+}
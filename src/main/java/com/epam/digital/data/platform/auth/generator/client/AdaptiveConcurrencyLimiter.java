@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.client;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ConcurrencyProperties;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AIMD limit of requests sent to a single bpms at the same time. While latency stays close to the
+ * lowest latency seen for the same operation, the limit grows by one per limit of successful
+ * requests. When bpms throttles, fails with an I/O error or slows down, the limit is multiplied by
+ * the backoff ratio. Requests started before the last decrease don't decrease the limit again, so
+ * a burst of responses to the same overload is counted once.
+ */
+@Slf4j
+class AdaptiveConcurrencyLimiter {
+
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double latencyTolerance;
+  private final double backoffRatio;
+  private final Map<String, OperationLatency> latencies = new HashMap<>();
+
+  private double limit;
+  private int inFlight;
+  private long epoch;
+
+  AdaptiveConcurrencyLimiter(ConcurrencyProperties properties) {
+    this.minLimit = Math.max(1, properties.getMinLimit());
+    this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+    this.latencyTolerance = properties.getLatencyTolerance();
+    this.backoffRatio = properties.getBackoffRatio();
+    this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+  }
+
+  /**
+   * Wait until the number of requests in flight is below the limit.
+   *
+   * @param operation operation of the request, latencies of different operations aren't compared.
+   * @return permit that must be released when the request is finished.
+   */
+  synchronized Permit acquire(String operation) {
+    var interrupted = false;
+    while (inFlight >= (int) limit) {
+      try {
+        wait();
+      } catch (InterruptedException e) {
+        // the request is still sent, waiting is short compared to the request itself
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    inFlight++;
+    return new Permit(operation, epoch);
+  }
+
+  /**
+   * @param permit       permit of the finished request.
+   * @param outcome      outcome of the request.
+   * @param latencyNanos round-trip time of the request.
+   */
+  synchronized void release(Permit permit, Outcome outcome, long latencyNanos) {
+    var utilized = inFlight >= limit / 2;
+    inFlight--;
+    if (outcome == Outcome.OVERLOAD
+        || outcome == Outcome.SUCCESS && isSlow(permit.operation, latencyNanos)) {
+      decrease(permit);
+    } else if (outcome == Outcome.SUCCESS && utilized) {
+      limit = Math.min(maxLimit, limit + 1 / limit);
+    }
+    notifyAll();
+  }
+
+  synchronized double getLimit() {
+    return limit;
+  }
+
+  private boolean isSlow(String operation, long latencyNanos) {
+    var latency = latencies.computeIfAbsent(operation, op -> new OperationLatency(latencyNanos));
+    latency.min = Math.min(latency.min, latencyNanos);
+    latency.smoothed += (latencyNanos - latency.smoothed) * LATENCY_SMOOTHING;
+    return latency.smoothed > latency.min * latencyTolerance;
+  }
+
+  private void decrease(Permit permit) {
+    if (permit.epoch != epoch) {
+      return;
+    }
+    epoch++;
+    limit = Math.max(minLimit, limit * backoffRatio);
+    // latency of the overloaded bpms must settle before it is judged again
+    latencies.values().forEach(latency -> latency.smoothed = latency.min);
+    log.debug("Bpms is overloaded, concurrency limit is decreased to {}", (int) limit);
+  }
+
+  enum Outcome {
+    SUCCESS,
+    OVERLOAD,
+    /**
+     * Request failed for a reason that says nothing about bpms load, e.g. it was invalid.
+     */
+    IGNORED
+  }
+
+  static final class Permit {
+
+    private final String operation;
+    private final long epoch;
+
+    private Permit(String operation, long epoch) {
+      this.operation = operation;
+      this.epoch = epoch;
+    }
+  }
+
+  private static final class OperationLatency {
+
+    private double min;
+    private double smoothed;
+
+    private OperationLatency(long latencyNanos) {
+      this.min = latencyNanos;
+      this.smoothed = latencyNanos;
+    }
+  }
+}
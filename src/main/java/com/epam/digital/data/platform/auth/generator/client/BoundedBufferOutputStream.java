@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.auth.generator.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Keeps written bytes in memory while there are fewer of them than the limit. A write that
+ * reaches the limit fails with {@link LimitReachedException}, so the writer stops as soon as the
+ * limit is reached instead of writing the rest.
+ */
+class BoundedBufferOutputStream extends OutputStream {
+
+  private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private final long limit;
+
+  BoundedBufferOutputStream(long limit) {
+    this.limit = limit;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    checkLimit(1);
+    buffer.write(b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    checkLimit(len);
+    buffer.write(b, off, len);
+  }
+
+  byte[] toByteArray() {
+    return buffer.toByteArray();
+  }
+
+  private void checkLimit(int length) throws LimitReachedException {
+    if (buffer.size() + (long) length >= limit) {
+      throw new LimitReachedException();
+    }
+  }
+
+  static class LimitReachedException extends IOException {
+
+    private LimitReachedException() {
+      super("Buffer limit is reached");
+    }
+  }
+}
@@ -16,103 +16,418 @@
 
 package com.epam.digital.data.platform.auth.generator.client;
 
+import com.epam.digital.data.platform.auth.generator.client.AdaptiveConcurrencyLimiter.Outcome;
+import com.epam.digital.data.platform.auth.generator.config.properties.ConcurrencyProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.HttpClientProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.PagingProperties;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.CountResultDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPOutputStream;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+/**
+ * Request bodies are serialized straight into the connection and responses are deserialized
+ * straight from it, by readers and writers built once for every body type. With compression
+ * enabled, only bodies smaller than the min size are buffered, to be sent uncompressed.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class BpmsRestClient {
 
   private static final String BASE_PATH = "api/extended/authorizations";
+  private static final String AUTHORIZATION_PATH = "api/authorization";
+  private static final int GRANT_AUTHORIZATION_TYPE = 1;
+  private static final String GZIP = "gzip";
   private static final String DELETE = "delete";
+  private static final String DELETE_ALL = "delete-all";
+  private static final String GET = "get";
+  private static final String COUNT = "count";
   private static final String CREATE = "create";
   private static final String PROCESS_DEFINITION = "process-definition";
   private static final String PROCESS_INSTANCE = "process-instance";
+  private static final String REQUESTS_METRIC = "bpms.client.requests";
+  private static final String REQUEST_SIZE_METRIC = "bpms.client.request.size";
+  private static final String RESPONSE_SIZE_METRIC = "bpms.client.response.size";
+  private static final String RETRIES_METRIC = "bpms.client.retries";
+  private static final String CONCURRENCY_LIMIT_METRIC = "bpms.client.concurrency.limit";
+  private static final String IO_ERROR_STATUS = "IO_ERROR";
+  private static final String UNKNOWN_STATUS = "UNKNOWN";
 
   private final RestTemplate restTemplate;
-  private final ObjectMapper objectMapper;
+  private final HttpClientProperties httpClientProperties;
+  private final PagingProperties pagingProperties;
+  private final Executor bpmsPagingExecutor;
+  private final Executor bpmsAsyncExecutor;
+  private final ConcurrencyProperties concurrencyProperties;
+  private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+  private final RetryTemplate bpmsRetryTemplate;
+  private final MeterRegistry meterRegistry;
+  private final ObjectWriter processDefinitionAuthsWriter;
+  private final ObjectWriter rolesWriter;
+  private final ObjectReader countResultReader;
+  private final ObjectReader authResponsesReader;
+
+  public BpmsRestClient(RestTemplate restTemplate, ObjectMapper objectMapper,
+      HttpClientProperties httpClientProperties, PagingProperties pagingProperties,
+      Executor bpmsPagingExecutor, Executor bpmsAsyncExecutor,
+      ConcurrencyProperties concurrencyProperties, RetryTemplate bpmsRetryTemplate,
+      MeterRegistry meterRegistry) {
+    this.restTemplate = restTemplate;
+    this.httpClientProperties = httpClientProperties;
+    this.pagingProperties = pagingProperties;
+    this.bpmsPagingExecutor = bpmsPagingExecutor;
+    this.bpmsAsyncExecutor = bpmsAsyncExecutor;
+    this.concurrencyProperties = concurrencyProperties;
+    this.bpmsRetryTemplate = bpmsRetryTemplate;
+    this.meterRegistry = meterRegistry;
+    this.processDefinitionAuthsWriter = objectMapper.writerFor(
+        new TypeReference<List<ProcessDefinitionAuthDto>>() {
+        });
+    this.rolesWriter = objectMapper.writerFor(new TypeReference<List<String>>() {
+    });
+    this.countResultReader = objectMapper.readerFor(CountResultDto.class);
+    this.authResponsesReader = objectMapper.readerFor(new TypeReference<List<AuthResponseDto>>() {
+    });
+  }
 
   public CountResultDto deleteAuthorizations(String bpmsBaseUrl, String token) {
     log.debug("Delete authorizations");
-    var response = performDelete(bpmsBaseUrl, token);
-    return deserializeResponse(response.getBody());
+    var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
+        .pathSegment(BASE_PATH.split("/"))
+        .pathSegment(DELETE)
+        .build().toUri();
+
+    return perform(bpmsBaseUrl, DELETE_ALL,
+        RequestEntity.delete(uri).headers(getHeaders(token)).build(), null, countResultReader);
+  }
+
+  public CountResultDto countAuthorizations(String bpmsBaseUrl, String token,
+      AuthResourceType resourceType) {
+    log.debug("Count {} authorizations", resourceType);
+    var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
+        .pathSegment(AUTHORIZATION_PATH.split("/"))
+        .pathSegment(COUNT)
+        .queryParam("type", GRANT_AUTHORIZATION_TYPE)
+        .queryParam("resourceType", resourceType.getCode())
+        .build().toUri();
+
+    return perform(bpmsBaseUrl, COUNT, RequestEntity.get(uri).headers(getHeaders(token)).build(),
+        null, countResultReader);
+  }
+
+  /**
+   * Authorizations are counted first and then requested by pages of configured size, several
+   * pages at the same time. Pages are requested while the stream is consumed, so only pages in
+   * flight are held in memory. Authorizations changed during the iteration may be missed or
+   * returned twice.
+   *
+   * @param bpmsBaseUrl  bpms base url.
+   * @param token        authorization token.
+   * @param resourceType type of authorization resource.
+   * @return ordered stream of authorizations, it should be closed if it is not consumed fully.
+   */
+  public Stream<AuthResponseDto> getAuthorizations(String bpmsBaseUrl, String token,
+      AuthResourceType resourceType) {
+    var count = countAuthorizations(bpmsBaseUrl, token, resourceType).getCount();
+    var pageSize = pagingProperties.getPageSize();
+    var pageCount = (int) ((count + pageSize - 1) / pageSize);
+    log.debug("Get {} {} authorizations in {} pages", count, resourceType, pageCount);
+    var spliterator = new PagedSpliterator<>(count, pageCount,
+        page -> getAuthorizationsPage(bpmsBaseUrl, token, resourceType, page * pageSize,
+            pageSize), pagingProperties.getMaxInFlight(), bpmsPagingExecutor);
+    return StreamSupport.stream(spliterator, false).onClose(spliterator::cancel);
+  }
+
+  private List<AuthResponseDto> getAuthorizationsPage(String bpmsBaseUrl, String token,
+      AuthResourceType resourceType, int firstResult, int maxResults) {
+    var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
+        .pathSegment(AUTHORIZATION_PATH.split("/"))
+        .queryParam("type", GRANT_AUTHORIZATION_TYPE)
+        .queryParam("resourceType", resourceType.getCode())
+        // no sorting is requested: camunda orders authorizations by their unique ids by default,
+        // while any sortable field repeats (e.g. resource id "*" of every process-instance grant),
+        // so pages of a query sorted by it may overlap or skip authorizations
+        .queryParam("firstResult", firstResult)
+        .queryParam("maxResults", maxResults)
+        .build().toUri();
+
+    return perform(bpmsBaseUrl, GET, RequestEntity.get(uri).headers(getHeaders(token)).build(),
+        null, authResponsesReader);
+  }
+
+  public void deleteAuthorization(String bpmsBaseUrl, String token, String authorizationId) {
+    log.debug("Delete authorization {}", authorizationId);
+    var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
+        .pathSegment(AUTHORIZATION_PATH.split("/"))
+        .pathSegment(authorizationId)
+        .build().toUri();
+
+    try {
+      perform(bpmsBaseUrl, DELETE, RequestEntity.delete(uri).headers(getHeaders(token)).build(),
+          null, null);
+    } catch (HttpClientErrorException.NotFound e) {
+      // a retried delete may find the authorization already removed by the failed attempt
+      log.debug("Authorization {} is already deleted", authorizationId);
+    }
   }
 
   public CountResultDto createProcessInstanceAuthorizations(String bpmsBaseUrl, String token,
       List<String> roles) {
     log.debug("Create process instance authorizations {}", roles);
-    var response = performPost(bpmsBaseUrl, token, PROCESS_INSTANCE, roles);
-    return deserializeResponse(response.getBody());
+    return performPost(bpmsBaseUrl, token, PROCESS_INSTANCE, roles, rolesWriter);
   }
 
   public CountResultDto createProcessDefinitionAuthorizations(String bpmsBaseUrl, String token,
       List<ProcessDefinitionAuthDto> body) {
     log.debug("Create process definition authorizations {}", body);
-    var response = performPost(bpmsBaseUrl, token, PROCESS_DEFINITION, body);
-    return deserializeResponse(response.getBody());
+    return performPost(bpmsBaseUrl, token, PROCESS_DEFINITION, body,
+        processDefinitionAuthsWriter);
+  }
+
+  /**
+   * Same as {@link #createProcessInstanceAuthorizations(String, String, List)}, but the request is
+   * sent on the async executor, so the caller can send other requests meanwhile.
+   */
+  public CompletableFuture<CountResultDto> createProcessInstanceAuthorizationsAsync(
+      String bpmsBaseUrl, String token, List<String> roles) {
+    return CompletableFuture.supplyAsync(
+        () -> createProcessInstanceAuthorizations(bpmsBaseUrl, token, roles), bpmsAsyncExecutor);
   }
 
-  private ResponseEntity<String> performPost(String bpmsBaseUrl, String token, String path,
-      Object body) {
+  private CountResultDto performPost(String bpmsBaseUrl, String token, String path, Object body,
+      ObjectWriter bodyWriter) {
     var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
         .pathSegment(BASE_PATH.split("/"))
         .pathSegment(path)
         .pathSegment(CREATE)
         .build().toUri();
 
-    return perform(RequestEntity.post(uri).headers(getHeaders(token))
-        .body(serializeAuthorizationCreateDto(body)));
+    return perform(bpmsBaseUrl, path + "-" + CREATE,
+        RequestEntity.post(uri).headers(getHeaders(token)).body(body), bodyWriter,
+        countResultReader);
   }
 
-  private ResponseEntity<String> performDelete(String bpmsBaseUrl, String token) {
-    var uri = UriComponentsBuilder.fromHttpUrl(bpmsBaseUrl)
-        .pathSegment(BASE_PATH.split("/"))
-        .pathSegment(DELETE)
-        .build().toUri();
+  /**
+   * Every attempt is timed separately and tagged with its response status, so retried failures
+   * are visible next to the final result. With adaptive concurrency every attempt waits for a
+   * permit of the bpms limiter and reports its latency and outcome back to it. Create requests are
+   * not idempotent, so after an I/O error they are retried only if the connection wasn't
+   * established and bpms couldn't have received them.
+   *
+   * @param bodyWriter     writer of request entity body, null if there is no body.
+   * @param responseReader reader of response body, null if the body is not needed.
+   */
+  private <T> T perform(String bpmsBaseUrl, String operation, RequestEntity<?> requestEntity,
+      ObjectWriter bodyWriter, ObjectReader responseReader) {
+    var tags = Tags.of("bpms", bpmsBaseUrl, "operation", operation);
+    var limiter = concurrencyProperties.isAdaptive() ? getLimiter(bpmsBaseUrl) : null;
+    var body = prepareBody(requestEntity.getBody(), bodyWriter);
+    return bpmsRetryTemplate.execute(context -> {
+      if (context.getRetryCount() > 0) {
+        meterRegistry.counter(RETRIES_METRIC, tags).increment();
+      }
+      var permit = limiter == null ? null : limiter.acquire(operation);
+      var startTime = System.nanoTime();
+      var sample = Timer.start(meterRegistry);
+      var status = new String[]{UNKNOWN_STATUS};
+      var outcome = Outcome.IGNORED;
+      try {
+        T result = restTemplate.execute(requestEntity.getUrl(), requestEntity.getMethod(),
+            request -> writeRequest(request, requestEntity, body, tags),
+            response -> {
+              status[0] = String.valueOf(response.getRawStatusCode());
+              return responseReader == null ? null : readResponse(response.getBody(),
+                  responseReader, tags);
+            });
+        outcome = Outcome.SUCCESS;
+        return result;
+      } catch (RestClientResponseException e) {
+        status[0] = String.valueOf(e.getRawStatusCode());
+        if (concurrencyProperties.getThrottlingStatuses().contains(e.getRawStatusCode())) {
+          outcome = Outcome.OVERLOAD;
+        }
+        throw e;
+      } catch (ResourceAccessException e) {
+        status[0] = IO_ERROR_STATUS;
+        outcome = Outcome.OVERLOAD;
+        if (requestEntity.getMethod() == HttpMethod.POST && !isNotSent(e)) {
+          // bpms may have committed the batch before the response was lost, a retry would create
+          // the same authorizations again and fail on their unique constraint
+          context.setExhaustedOnly();
+        }
+        throw e;
+      } finally {
+        sample.stop(meterRegistry.timer(REQUESTS_METRIC, tags.and("status", status[0])));
+        if (permit != null) {
+          limiter.release(permit, outcome, System.nanoTime() - startTime);
+        }
+      }
+    });
+  }
 
-    return perform(RequestEntity.delete(uri).headers(getHeaders(token)).build());
+  private boolean isNotSent(ResourceAccessException e) {
+    var cause = e.getCause();
+    // connection pool timeouts are connect timeouts as well
+    return cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+        || cause instanceof UnknownHostException;
   }
 
-  private ResponseEntity<String> perform(RequestEntity<?> requestEntity) {
-    return restTemplate.exchange(requestEntity, String.class);
+  private AdaptiveConcurrencyLimiter getLimiter(String bpmsBaseUrl) {
+    return limiters.computeIfAbsent(bpmsBaseUrl, url -> {
+      var limiter = new AdaptiveConcurrencyLimiter(concurrencyProperties);
+      Gauge.builder(CONCURRENCY_LIMIT_METRIC, limiter, AdaptiveConcurrencyLimiter::getLimit)
+          .tag("bpms", url)
+          .register(meterRegistry);
+      return limiter;
+    });
   }
 
-  private HttpHeaders getHeaders(String token) {
-    var headers = new HttpHeaders();
-    headers.add("Content-Type", "application/json");
-    headers.add("X-Access-Token", token);
-    return headers;
+  /**
+   * With compression enabled, the body is serialized into a buffer bounded by the min size once for
+   * all attempts. A smaller body is sent from the buffer as is. Serialization of a larger one stops
+   * at the min size, and every attempt streams it through gzip.
+   */
+  private RequestBody prepareBody(Object body, ObjectWriter bodyWriter) {
+    var compression = httpClientProperties.getCompression();
+    if (body == null || !compression.isEnabled()) {
+      return new RequestBody(body, bodyWriter, null, false);
+    }
+    var buffer = new BoundedBufferOutputStream(compression.getMinSize().toBytes());
+    try {
+      serialize(bodyWriter, buffer, body);
+      return new RequestBody(body, bodyWriter, buffer.toByteArray(), false);
+    } catch (BoundedBufferOutputStream.LimitReachedException e) {
+      return new RequestBody(body, bodyWriter, null, true);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Couldn't serialize request body", e);
+    }
   }
 
-  private CountResultDto deserializeResponse(String response) {
+  private void writeRequest(ClientHttpRequest request, RequestEntity<?> requestEntity,
+      RequestBody body, Tags tags) throws IOException {
+    request.getHeaders().putAll(requestEntity.getHeaders());
+    if (body.value == null) {
+      return;
+    }
+    if (body.compressed) {
+      request.getHeaders().add(HttpHeaders.CONTENT_ENCODING, GZIP);
+    }
+    if (request instanceof StreamingHttpOutputMessage) {
+      ((StreamingHttpOutputMessage) request).setBody(
+          outputStream -> writeBody(outputStream, body, tags));
+    } else {
+      writeBody(request.getBody(), body, tags);
+    }
+  }
+
+  private void writeBody(OutputStream outputStream, RequestBody body, Tags tags)
+      throws IOException {
+    var countingStream = new CountingOutputStream(StreamUtils.nonClosing(outputStream));
+    try (var bodyStream = body.compressed ? new GZIPOutputStream(countingStream) : countingStream) {
+      if (body.bytes != null) {
+        bodyStream.write(body.bytes);
+      } else {
+        serialize(body.writer, bodyStream, body.value);
+      }
+    }
+    recordSize(REQUEST_SIZE_METRIC, tags, countingStream.getCount());
+  }
+
+  private void serialize(ObjectWriter bodyWriter, OutputStream outputStream, Object body)
+      throws IOException {
     try {
-      return objectMapper.readValue(response, new TypeReference<>() {
-      });
+      bodyWriter.writeValue(outputStream, body);
     } catch (JsonProcessingException e) {
+      // not an I/O error, so it must not be retried
       e.clearLocation();
-      throw new IllegalArgumentException("Couldn't deserialize response", e);
+      throw new IllegalArgumentException("Couldn't serialize request body", e);
     }
   }
 
-  private String serializeAuthorizationCreateDto(Object requestBody) {
+  private <T> T readResponse(InputStream inputStream, ObjectReader responseReader,
+      Tags tags) throws IOException {
+    var countingStream = new CountingInputStream(inputStream);
     try {
-      return objectMapper.writeValueAsString(requestBody);
+      return responseReader.readValue(countingStream);
     } catch (JsonProcessingException e) {
       e.clearLocation();
-      throw new IllegalArgumentException("Couldn't serialize request body", e);
+      throw new IllegalArgumentException("Couldn't deserialize response", e);
+    } finally {
+      recordSize(RESPONSE_SIZE_METRIC, tags, countingStream.getCount());
+    }
+  }
+
+  private void recordSize(String metric, Tags tags, long size) {
+    DistributionSummary.builder(metric)
+        .baseUnit(BaseUnits.BYTES)
+        .tags(tags)
+        .register(meterRegistry)
+        .record(size);
+  }
+
+  private HttpHeaders getHeaders(String token) {
+    var headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    headers.add("X-Access-Token", token);
+    return headers;
+  }
+
+  private static final class RequestBody {
+
+    private final Object value;
+    private final ObjectWriter writer;
+    /**
+     * Serialized body if it is buffered, null if it is serialized by every attempt.
+     */
+    private final byte[] bytes;
+    private final boolean compressed;
+
+    private RequestBody(Object value, ObjectWriter writer, byte[] bytes, boolean compressed) {
+      this.value = value;
+      this.writer = writer;
+      this.bytes = bytes;
+      this.compressed = compressed;
     }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.client;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Spliterator over pages that are loaded ahead of the consumer. Up to {@code maxInFlight} pages
+ * are loaded at the same time, but elements are always passed in pages order, so only pages being
+ * loaded and the page being consumed are held in memory.
+ */
+class PagedSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  private final IntFunction<List<T>> pageLoader;
+  private final int pageCount;
+  private final int maxInFlight;
+  private final Executor executor;
+  private final ArrayDeque<CompletableFuture<List<T>>> loadingPages;
+  private Iterator<T> currentPage = List.<T>of().iterator();
+  private int nextPage;
+
+  /**
+   * @param estimatedSize number of elements expected in all pages.
+   * @param pageCount     number of pages.
+   * @param pageLoader    loader of a page by its number.
+   * @param maxInFlight   max number of pages loaded at the same time.
+   * @param executor      executor pages are loaded with.
+   */
+  PagedSpliterator(long estimatedSize, int pageCount, IntFunction<List<T>> pageLoader,
+      int maxInFlight, Executor executor) {
+    super(estimatedSize, ORDERED | NONNULL);
+    this.pageLoader = pageLoader;
+    this.pageCount = pageCount;
+    this.maxInFlight = Math.max(1, maxInFlight);
+    this.executor = executor;
+    this.loadingPages = new ArrayDeque<>(this.maxInFlight);
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (!currentPage.hasNext()) {
+      while (nextPage < pageCount && loadingPages.size() < maxInFlight) {
+        var page = nextPage++;
+        loadingPages.add(CompletableFuture.supplyAsync(() -> pageLoader.apply(page), executor));
+      }
+      if (loadingPages.isEmpty()) {
+        return false;
+      }
+      currentPage = getLoadedPage(loadingPages.poll()).iterator();
+    }
+    action.accept(currentPage.next());
+    return true;
+  }
+
+  /**
+   * Stop loading of pages that are not consumed yet, e.g. when the stream is closed early.
+   */
+  void cancel() {
+    nextPage = pageCount;
+    loadingPages.forEach(page -> page.cancel(true));
+    loadingPages.clear();
+  }
+
+  private List<T> getLoadedPage(CompletableFuture<List<T>> loadedPage) {
+    try {
+      return loadedPage.join();
+    } catch (CompletionException e) {
+      cancel();
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
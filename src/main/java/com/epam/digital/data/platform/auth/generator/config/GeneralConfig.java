@@ -16,16 +16,53 @@
 
 package com.epam.digital.data.platform.auth.generator.config;
 
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.ConcurrencyProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.HttpClientProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.MetricsProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.PagingProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.RetryProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.WatchProperties;
+import com.epam.digital.data.platform.auth.generator.enums.HttpClientType;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryPolicy;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.listener.RetryListenerSupport;
+import org.springframework.retry.policy.CompositeRetryPolicy;
+import org.springframework.retry.policy.ExceptionClassifierRetryPolicy;
+import org.springframework.retry.policy.NeverRetryPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.policy.TimeoutRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+@Slf4j
 @Configuration
-@EnableRetry
+@EnableConfigurationProperties({BatchProperties.class, ParsingProperties.class,
+    HttpClientProperties.class, RetryProperties.class, MetricsProperties.class,
+    PagingProperties.class, ConcurrencyProperties.class, WatchProperties.class})
 public class GeneralConfig {
 
   @Bean
@@ -43,7 +80,116 @@ public class GeneralConfig {
   }
 
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public PrometheusMeterRegistry meterRegistry() {
+    return new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+  }
+
+  @Bean
+  public RestTemplate restTemplate(ClientHttpRequestFactory clientHttpRequestFactory) {
+    return new RestTemplate(clientHttpRequestFactory);
+  }
+
+  @Bean
+  public ClientHttpRequestFactory clientHttpRequestFactory(HttpClientProperties properties) {
+    if (properties.getType() == HttpClientType.SIMPLE) {
+      var requestFactory = new SimpleClientHttpRequestFactory();
+      requestFactory.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+      requestFactory.setReadTimeout((int) properties.getReadTimeout().toMillis());
+      requestFactory.setBufferRequestBody(false);
+      return requestFactory;
+    }
+    var keepAliveMillis = properties.getKeepAlive().toMillis();
+    var connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(properties.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+    var requestConfig = RequestConfig.custom()
+        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+        .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+        .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+        .build();
+    var httpClient = HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(requestConfig)
+        .setKeepAliveStrategy((response, context) -> {
+          var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+              .getKeepAliveDuration(response, context);
+          return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAliveMillis) : keepAliveMillis;
+        })
+        .evictExpiredConnections()
+        .evictIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS)
+        .build();
+    var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    // request bodies are written straight to the connection instead of a buffer
+    requestFactory.setBufferRequestBody(false);
+    return requestFactory;
+  }
+
+  @Bean
+  public ThreadPoolTaskExecutor bpmsBatchExecutor(BatchProperties batchProperties) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(batchProperties.getMaxInFlight());
+    executor.setMaxPoolSize(batchProperties.getMaxInFlight());
+    executor.setThreadNamePrefix("bpms-batch-");
+    executor.setDaemon(true);
+    return executor;
+  }
+
+  @Bean
+  public ThreadPoolTaskExecutor bpmsAsyncExecutor(BatchProperties batchProperties) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(batchProperties.getMaxInFlight());
+    executor.setMaxPoolSize(batchProperties.getMaxInFlight());
+    executor.setThreadNamePrefix("bpms-async-");
+    executor.setDaemon(true);
+    return executor;
+  }
+
+  @Bean
+  public ThreadPoolTaskExecutor bpmsPagingExecutor(PagingProperties pagingProperties) {
+    var executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(pagingProperties.getMaxInFlight());
+    executor.setMaxPoolSize(pagingProperties.getMaxInFlight());
+    executor.setThreadNamePrefix("bpms-paging-");
+    executor.setDaemon(true);
+    return executor;
+  }
+
+  @Bean
+  public RetryTemplate bpmsRetryTemplate(RetryProperties properties) {
+    var attemptsPolicy = new SimpleRetryPolicy(properties.getMaxAttempts());
+    var neverRetryPolicy = new NeverRetryPolicy();
+    var retryableExceptionPolicy = new ExceptionClassifierRetryPolicy();
+    retryableExceptionPolicy.setExceptionClassifier(
+        e -> isRetryable(e, properties) ? attemptsPolicy : neverRetryPolicy);
+    var timeBudgetPolicy = new TimeoutRetryPolicy();
+    timeBudgetPolicy.setTimeout(properties.getTimeBudget().toMillis());
+    var retryPolicy = new CompositeRetryPolicy();
+    retryPolicy.setPolicies(new RetryPolicy[]{retryableExceptionPolicy, timeBudgetPolicy});
+
+    var backOffPolicy = new ExponentialRandomBackOffPolicy();
+    backOffPolicy.setInitialInterval(properties.getInitialInterval().toMillis());
+    backOffPolicy.setMultiplier(properties.getMultiplier());
+    backOffPolicy.setMaxInterval(properties.getMaxInterval().toMillis());
+
+    var retryTemplate = new RetryTemplate();
+    retryTemplate.setRetryPolicy(retryPolicy);
+    retryTemplate.setBackOffPolicy(backOffPolicy);
+    retryTemplate.registerListener(new RetryListenerSupport() {
+      @Override
+      public <T, E extends Throwable> void onError(RetryContext context,
+          RetryCallback<T, E> callback, Throwable throwable) {
+        log.warn("Bpms request attempt {} failed: {}", context.getRetryCount(),
+            throwable.getMessage());
+      }
+    });
+    return retryTemplate;
+  }
+
+  private boolean isRetryable(Throwable e, RetryProperties properties) {
+    if (e instanceof ResourceAccessException) {
+      return true;
+    }
+    return e instanceof HttpStatusCodeException && properties.getRetryableStatuses()
+        .contains(((HttpStatusCodeException) e).getRawStatusCode());
   }
 }
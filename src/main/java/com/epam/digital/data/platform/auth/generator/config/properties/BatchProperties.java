@@ -0,0 +1,38 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of chunked submission of authorizations to bpms.
+ */
+@Data
+@ConfigurationProperties(prefix = "bpms.batch")
+public class BatchProperties {
+
+  /**
+   * Max number of authorizations sent in one request.
+   */
+  private int size = 1000;
+  /**
+   * Max number of requests that are sent to bpms at the same time. With adaptive concurrency
+   * requests are also limited by the current concurrency limit.
+   */
+  private int maxInFlight = 16;
+}
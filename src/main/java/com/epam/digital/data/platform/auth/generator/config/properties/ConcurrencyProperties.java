@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.config.properties;
+
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of adaptive limit of requests sent to the same bpms at the same time.
+ */
+@Data
+@ConfigurationProperties(prefix = "bpms.concurrency")
+public class ConcurrencyProperties {
+
+  /**
+   * Adapt the limit to bpms latency and throttling responses, otherwise requests are limited only
+   * by sizes of thread pools.
+   */
+  private boolean adaptive = true;
+  private int initialLimit = 4;
+  private int minLimit = 1;
+  private int maxLimit = 16;
+  /**
+   * Smoothed latency above this multiple of the lowest latency of the same operation means bpms is
+   * overloaded.
+   */
+  private double latencyTolerance = 2;
+  /**
+   * Limit is multiplied by this ratio when bpms is overloaded.
+   */
+  private double backoffRatio = 0.5;
+  /**
+   * Response statuses that mean bpms is overloaded, I/O errors always mean it.
+   */
+  private Set<Integer> throttlingStatuses = Set.of(429, 503);
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.config.properties;
+
+import com.epam.digital.data.platform.auth.generator.enums.HttpClientType;
+import java.time.Duration;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of http transport used for communication with bpms.
+ */
+@Data
+@ConfigurationProperties(prefix = "bpms.http")
+public class HttpClientProperties {
+
+  private HttpClientType type = HttpClientType.POOLED;
+  /**
+   * Max number of pooled connections.
+   */
+  private int maxConnections = 50;
+  /**
+   * Max number of pooled connections to the same bpms host.
+   */
+  private int maxConnectionsPerRoute = 20;
+  /**
+   * How long an idle connection is kept in the pool if bpms doesn't send Keep-Alive header.
+   */
+  private Duration keepAlive = Duration.ofSeconds(30);
+  private Duration connectTimeout = Duration.ofSeconds(10);
+  private Duration readTimeout = Duration.ofSeconds(120);
+  /**
+   * How long to wait for a free connection from the pool.
+   */
+  private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+  private Compression compression = new Compression();
+
+  @Data
+  public static class Compression {
+
+    /**
+     * Send request bodies with {@code Content-Encoding: gzip}, bpms must accept compressed
+     * requests.
+     */
+    private boolean enabled = false;
+    /**
+     * Bodies smaller than this size are sent uncompressed.
+     */
+    private DataSize minSize = DataSize.ofKilobytes(8);
+  }
+}
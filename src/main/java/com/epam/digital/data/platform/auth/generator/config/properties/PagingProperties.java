@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.config.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of paged retrieval of existing authorizations from bpms.
+ */
+@Data
+@ConfigurationProperties(prefix = "bpms.paging")
+public class PagingProperties {
+
+  /**
+   * Max number of authorizations requested in one page.
+   */
+  private int pageSize = 1000;
+  /**
+   * Max number of pages that are requested from bpms at the same time.
+   */
+  private int maxInFlight = 4;
+}
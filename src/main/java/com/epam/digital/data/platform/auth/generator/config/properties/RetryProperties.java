@@ -0,0 +1,47 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.config.properties;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of retrying a single failed request to bpms.
+ */
+@Data
+@ConfigurationProperties(prefix = "bpms.retry")
+public class RetryProperties {
+
+  /**
+   * Max number of attempts of a request, including the first one.
+   */
+  private int maxAttempts = 5;
+  private Duration initialInterval = Duration.ofMillis(500);
+  private double multiplier = 2;
+  private Duration maxInterval = Duration.ofSeconds(10);
+  /**
+   * No retries are started once this time has passed since the first attempt.
+   */
+  private Duration timeBudget = Duration.ofMinutes(1);
+  /**
+   * Response statuses that are retried. I/O errors are retried as well, except errors of create
+   * requests that could have reached bpms.
+   */
+  private Set<Integer> retryableStatuses = Set.of(429, 502, 503, 504);
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.daemon;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.WatchProperties;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyOptionsDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyRequestDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.BpmsTargetDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyMode;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigCache;
+import com.epam.digital.data.platform.auth.generator.reader.AuthFilesResolver;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies config files and then applies them again every time any of them changes. Changes are
+ * debounced, only changed files are parsed again and authorizations are synced, so only the
+ * difference is sent to bpms and users keep their permissions while changes are applied.
+ * {@code AUTH_FILES} is resolved again on every change, so config files added to or removed from
+ * a directory or a pattern entry, including its subdirectories, are applied as well.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthFilesWatcher {
+
+  private final ApplyService applyService;
+  private final AuthFilesResolver authFilesResolver;
+  private final AuthConfigCache authConfigCache;
+  private final WatchProperties watchProperties;
+
+  /**
+   * Watch config files of the request until the thread is interrupted. Invalid config files and
+   * failed bpms are logged and don't stop watching.
+   *
+   * @param request targets, {@code AUTH_FILES} entries with their config files and apply options,
+   *                {@code recreate} mode is applied as {@code sync}.
+   * @throws IOException if directories of config files can't be watched.
+   */
+  public void watch(ApplyRequestDto request) throws IOException {
+    var authFileEntries = request.getAuthFileEntries();
+    var files = normalize(request.getAuthFiles());
+    var options = watchOptions(request.getOptions());
+    try (var watchService = FileSystems.getDefault().newWatchService()) {
+      register(watchService, authFileEntries, files);
+      log.info("Watching {} config files", files.size());
+      apply(request.getTargets(), files, options);
+      while (!Thread.currentThread().isInterrupted()) {
+        var changedPaths = new TreeSet<Path>();
+        collectChanges(watchService.take(), files, changedPaths);
+        WatchKey key;
+        while ((key = watchService.poll(watchProperties.getDebounce().toMillis(),
+            TimeUnit.MILLISECONDS)) != null) {
+          collectChanges(key, files, changedPaths);
+        }
+        Set<Path> resolvedFiles;
+        try {
+          resolvedFiles = normalize(authFilesResolver.resolve(authFileEntries));
+          register(watchService, authFileEntries, resolvedFiles);
+        } catch (IllegalArgumentException | IOException e) {
+          // e.g. the last file of a directory is removed, it is applied once files are back
+          log.error("Config files are not resolved: {}", e.getMessage());
+          continue;
+        }
+        var appliedFiles = files;
+        var changedFiles = changedPaths.stream()
+            .filter(path -> appliedFiles.contains(path) || resolvedFiles.contains(path))
+            .collect(Collectors.toCollection(TreeSet::new));
+        if (changedFiles.isEmpty() && resolvedFiles.equals(appliedFiles)) {
+          // e.g. a temporary file of an editor next to a config file
+          continue;
+        }
+        log.info("Config files changed: {}", changedFiles);
+        files = resolvedFiles;
+        apply(request.getTargets(), files, options);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    log.info("Watching of config files is stopped");
+  }
+
+  private ApplyOptionsDto watchOptions(ApplyOptionsDto options) {
+    return options.getMode() == ApplyMode.RECREATE
+        ? options.toBuilder().mode(ApplyMode.SYNC).build()
+        : options;
+  }
+
+  private Set<Path> normalize(List<File> files) {
+    return files.stream()
+        .map(file -> file.toPath().toAbsolutePath().normalize())
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Registers parent directories of config files and directories of directory and pattern entries
+   * with all their subdirectories. It is called again after every change, so subdirectories
+   * created since then are registered too, directories that are already registered keep their
+   * keys.
+   */
+  private void register(WatchService watchService, String authFileEntries, Set<Path> files)
+      throws IOException {
+    var directories = new HashSet<Path>();
+    files.forEach(file -> directories.add(file.getParent()));
+    for (var root : authFilesResolver.resolveDirectories(authFileEntries)) {
+      var directory = root.toAbsolutePath().normalize();
+      if (!Files.isDirectory(directory)) {
+        continue;
+      }
+      try (var paths = Files.walk(directory)) {
+        paths.filter(path -> Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+            .forEach(directories::add);
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+    for (var directory : directories) {
+      try {
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+      } catch (NoSuchFileException e) {
+        // a missing file is reported by the reader, a removed directory has nothing to watch
+        log.debug("Directory is not found: {}", directory);
+      }
+    }
+  }
+
+  private void collectChanges(WatchKey key, Set<Path> files, Set<Path> changedPaths) {
+    var directory = (Path) key.watchable();
+    for (var event : key.pollEvents()) {
+      if (event.kind() == OVERFLOW) {
+        // events are lost, so any of the files could have changed
+        changedPaths.addAll(files);
+        continue;
+      }
+      changedPaths.add(directory.resolve((Path) event.context()));
+    }
+    key.reset();
+  }
+
+  private void apply(List<BpmsTargetDto> targets, Set<Path> files, ApplyOptionsDto options) {
+    try {
+      var authorizationSource = authConfigCache.get(files.stream()
+          .map(Path::toFile)
+          .collect(Collectors.toList()));
+      var results = applyService.applyToAll(targets, authorizationSource, options);
+      results.forEach(applyService::logResult);
+    } catch (IllegalArgumentException e) {
+      // a file could be saved in the middle of editing, it is applied once it is fixed
+      log.error("Config files are not applied: {}", e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.daemon;
+
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.DaemonSettingsDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyStatus;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigCache;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSnapshotStore;
+import com.epam.digital.data.platform.auth.generator.runner.ApplyRequestParser;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local http server of a long-running cli. {@code POST /apply} takes a JSON array of cli arguments,
+ * e.g. {@code ["--AUTH_FILES=...", "--MODE=sync"]}, and responds with results of all bpms. Bpms,
+ * their tokens and output files are fixed on start, and every request has to send the daemon
+ * secret as {@code Authorization: Bearer <secret>}. Connections to bpms stay warm between requests
+ * and config files are read again only when they change. Requests are applied one by one, so two
+ * requests never change the same bpms at the same time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DaemonServer implements DisposableBean {
+
+  private static final String APPLY_PATH = "/apply";
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final ApplyService applyService;
+  private final ApplyRequestParser applyRequestParser;
+  private final AuthConfigCache authConfigCache;
+  private final AuthorizationSnapshotStore authorizationSnapshotStore;
+  private final ObjectMapper objectMapper;
+
+  private HttpServer server;
+  private ExecutorService executor;
+  private volatile DaemonSettingsDto settings;
+
+  /**
+   * Start listening on the loopback interface only.
+   *
+   * @param settings port, 0 to pick a free one, secret, bpms and output files of the daemon.
+   * @return address the server listens on.
+   * @throws IOException if the port can't be bound.
+   */
+  public synchronized InetSocketAddress start(DaemonSettingsDto settings) throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("Daemon is already started");
+    }
+    this.settings = settings;
+    server = HttpServer.create(
+        new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.getPort()), 0);
+    executor = Executors.newSingleThreadExecutor();
+    server.setExecutor(executor);
+    server.createContext(APPLY_PATH, this::handleApply);
+    server.start();
+    log.info("Daemon is listening on {}", server.getAddress());
+    return server.getAddress();
+  }
+
+  /**
+   * Apply cli arguments of a single request.
+   *
+   * @param args cli arguments.
+   * @return results in targets order.
+   * @throws IllegalArgumentException if arguments or config files are invalid.
+   * @throws IOException              if a token file can't be read.
+   */
+  public List<ApplyResultDto> apply(String... args) throws IOException {
+    if (settings == null) {
+      throw new IllegalStateException("Daemon is not started");
+    }
+    var request = applyRequestParser.parseDaemonRequest(new DefaultApplicationArguments(args),
+        settings);
+    var authorizationSource = request.getSnapshotFile() == null
+        ? authConfigCache.get(request.getAuthFiles())
+        : authorizationSnapshotStore.read(request.getSnapshotFile());
+    var results = applyService.applyToAll(request.getTargets(), authorizationSource,
+        request.getOptions());
+    results.forEach(applyService::logResult);
+    return results;
+  }
+
+  @Override
+  public synchronized void destroy() {
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    executor.shutdownNow();
+    server = null;
+    log.info("Daemon is stopped");
+  }
+
+  private void handleApply(HttpExchange exchange) throws IOException {
+    try {
+      if (!isAuthorized(exchange)) {
+        exchange.getResponseHeaders().set(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        sendResponse(exchange, HttpStatus.UNAUTHORIZED,
+            Map.of("error", "Daemon secret is missing or invalid"));
+        return;
+      }
+      if (!"POST".equals(exchange.getRequestMethod())) {
+        sendResponse(exchange, HttpStatus.METHOD_NOT_ALLOWED,
+            Map.of("error", "Only POST is supported"));
+        return;
+      }
+      List<ApplyResultDto> results;
+      try {
+        results = apply(objectMapper.readValue(exchange.getRequestBody(), String[].class));
+      } catch (JsonProcessingException e) {
+        sendResponse(exchange, HttpStatus.BAD_REQUEST,
+            Map.of("error", "Request body must be a JSON array of cli arguments"));
+        return;
+      } catch (IllegalArgumentException e) {
+        sendResponse(exchange, HttpStatus.BAD_REQUEST, Map.of("error", e.getMessage()));
+        return;
+      } catch (IOException | RuntimeException e) {
+        log.error("Failed to apply daemon request", e);
+        sendResponse(exchange, HttpStatus.INTERNAL_SERVER_ERROR,
+            Map.of("error", String.valueOf(e.getMessage())));
+        return;
+      }
+      var failed = results.stream().anyMatch(r -> r.getStatus() == ApplyStatus.FAILED);
+      sendResponse(exchange, failed ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK, results);
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private boolean isAuthorized(HttpExchange exchange) {
+    var authorization = exchange.getRequestHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+      return false;
+    }
+    // constant-time comparison doesn't tell how much of the secret is guessed
+    return MessageDigest.isEqual(
+        authorization.substring(BEARER_PREFIX.length()).getBytes(StandardCharsets.UTF_8),
+        settings.getSecret().getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void sendResponse(HttpExchange exchange, HttpStatus status, Object body)
+      throws IOException {
+    var bytes = objectMapper.writeValueAsBytes(body);
+    exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+    exchange.sendResponseHeaders(status.value(), bytes.length);
+    exchange.getResponseBody().write(bytes);
+  }
+}
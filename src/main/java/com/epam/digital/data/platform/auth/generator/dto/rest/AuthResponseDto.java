@@ -28,5 +28,7 @@ public class AuthResponseDto {
 
   private String id;
   private String groupId;
+  private String resourceId;
+  private Integer resourceType;
   private Set<String> permissions;
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.enums;
+
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Strategy used to bring BPMS authorizations in line with config files.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ApplyMode {
+
+  /**
+   * Delete all managed authorizations and create them again from config files.
+   */
+  RECREATE("recreate"),
+  /**
+   * Read current authorizations and send only the creates and deletes that differ. Creates are
+   * sent before deletes, so there is no moment without permissions.
+   */
+  SYNC("sync"),
+  /**
+   * Read current authorizations and report the creates and deletes sync would send, without
+   * changing anything.
+   */
+  PLAN("plan");
+
+  private final String value;
+
+  public static ApplyMode fromValue(String value) {
+    return Arrays.stream(values())
+        .filter(mode -> mode.value.equalsIgnoreCase(value))
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(
+            String.format("Unknown apply mode: %s", value)));
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.metrics;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.MetricsProperties;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes collected metrics to a Prometheus textfile when the application stops, both after a
+ * successful and a failed run. The file is replaced atomically, so node exporter never reads a
+ * partially written file. The bean is never lazy, otherwise nothing would be written in fast-start
+ * mode.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@RequiredArgsConstructor
+public class PrometheusTextfileExporter implements DisposableBean {
+
+  private final PrometheusMeterRegistry meterRegistry;
+  private final MetricsProperties metricsProperties;
+
+  @Override
+  public void destroy() {
+    var textfile = metricsProperties.getTextfile();
+    if (textfile == null) {
+      return;
+    }
+    try {
+      export(textfile);
+      log.debug("Metrics are written to {}", textfile);
+    } catch (IOException e) {
+      // metrics must not change the result of the run
+      log.warn("Couldn't write metrics to {}", textfile, e);
+    }
+  }
+
+  void export(Path textfile) throws IOException {
+    var directory = textfile.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    var tempFile = Files.createTempFile(directory, textfile.getFileName().toString(), ".tmp");
+    try (var writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+      meterRegistry.scrape(writer);
+    }
+    Files.move(tempFile, textfile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plans of recently read config files. Every file is kept separately and is read again only once
+ * its size or modification time changes, so a long-running process always applies current files
+ * and a change of one file doesn't make the others parsed again.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthConfigCache {
+
+  private static final int MAX_FILES = 4096;
+
+  private final AuthConfigStreamReader authConfigStreamReader;
+  private final Map<File, CachedPlan> entries = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<File, CachedPlan> eldest) {
+      return size() > MAX_FILES;
+    }
+  };
+  private List<AuthorizationPlan> lastFilePlans = List.of();
+  private AuthorizationPlan lastPlan;
+
+  /**
+   * @param files config files.
+   * @return merged plan of the files, only files changed since the last call are read again.
+   * @throws IllegalArgumentException if any of the files is invalid.
+   */
+  public synchronized AuthorizationPlan get(List<File> files) {
+    var filePlans = new ArrayList<AuthorizationPlan>(files.size());
+    var readCount = 0;
+    for (var file : files) {
+      // the stamp is taken before reading, so a file changed while being read is read again
+      var stamp = FileStamp.of(file);
+      var entry = entries.get(file);
+      if (entry == null || !entry.stamp.equals(stamp)) {
+        entry = new CachedPlan(stamp,
+            AuthorizationPlan.read(consumer -> authConfigStreamReader.readFile(file, consumer)));
+        entries.put(file, entry);
+        readCount++;
+      }
+      filePlans.add(entry.plan);
+    }
+    if (readCount == 0 && filePlans.equals(lastFilePlans)) {
+      log.debug("Config files are not changed, cached plan is used");
+      return lastPlan;
+    }
+    log.debug("Config files read: {} of {}", readCount, files.size());
+    lastPlan = AuthorizationPlan.from(consumer -> filePlans.forEach(p -> p.forEachPair(consumer)));
+    lastFilePlans = filePlans;
+    return lastPlan;
+  }
+
+  private static final class CachedPlan {
+
+    private final FileStamp stamp;
+    private final AuthorizationPlan plan;
+
+    private CachedPlan(FileStamp stamp, AuthorizationPlan plan) {
+      this.stamp = stamp;
+      this.plan = plan;
+    }
+  }
+
+  private static final class FileStamp {
+
+    private final long size;
+    private final long lastModified;
+
+    private FileStamp(long size, long lastModified) {
+      this.size = size;
+      this.lastModified = lastModified;
+    }
+
+    private static FileStamp of(File file) {
+      return new FileStamp(file.length(), file.lastModified());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof FileStamp)) {
+        return false;
+      }
+      var that = (FileStamp) o;
+      return size == that.size && lastModified == that.lastModified;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(size, lastModified);
+    }
+  }
+}
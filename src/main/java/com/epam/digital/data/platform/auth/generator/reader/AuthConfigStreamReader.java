@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads (process definition id, role) pairs from auth config files token by token, without
+ * building {@code AuthConfigDto} object graph. Up to configured number of files are parsed at the
+ * same time, but pairs are always emitted in files order, so only the files being parsed are held
+ * in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthConfigStreamReader {
+
+  private static final String AUTHORIZATION = "authorization";
+  private static final String PROCESS_DEFINITIONS = "process_definitions";
+  private static final String PROCESS_DEFINITION_ID = "process_definition_id";
+  private static final String ROLES = "roles";
+
+  private final ObjectMapper ymlObjectMapper;
+  private final ParsingProperties parsingProperties;
+
+  /**
+   * Create source that reads config files on every iteration.
+   *
+   * @param files config files.
+   * @return source of pairs of all config files.
+   */
+  public AuthorizationSource fromFiles(List<File> files) {
+    return consumer -> readFiles(files, consumer);
+  }
+
+  /**
+   * Check that all config files can be read.
+   *
+   * @param files config files.
+   * @throws IllegalArgumentException if any of the files is invalid.
+   */
+  public void validate(List<File> files) {
+    readFiles(files, (processDefinitionId, role) -> {
+    });
+  }
+
+  /**
+   * Read pairs of a single config file.
+   *
+   * @param file     config file.
+   * @param consumer consumer of process definition id and role.
+   * @throws IllegalArgumentException if the file is invalid.
+   */
+  public void readFile(File file, BiConsumer<String, String> consumer) {
+    try (var parser = ymlObjectMapper.getFactory().createParser(file)) {
+      readConfig(parser, consumer);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(String.format("Invalid configuration: %s", file));
+    }
+  }
+
+  private void readFiles(List<File> files, BiConsumer<String, String> consumer) {
+    var parallelism = Math.max(1, Math.min(parsingProperties.getParallelism(), files.size()));
+    var executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      var parsingFiles = new ArrayDeque<CompletableFuture<List<String>>>(parallelism);
+      var filesIterator = files.iterator();
+      while (filesIterator.hasNext() || !parsingFiles.isEmpty()) {
+        while (filesIterator.hasNext() && parsingFiles.size() < parallelism) {
+          var file = filesIterator.next();
+          parsingFiles.add(CompletableFuture.supplyAsync(() -> readPairs(file), executor));
+        }
+        var pairs = getParsedFile(parsingFiles.poll());
+        for (var i = 0; i < pairs.size(); i += 2) {
+          consumer.accept(pairs.get(i), pairs.get(i + 1));
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Pairs of a file are buffered as a flat list of alternating process definition ids and roles.
+   */
+  private List<String> readPairs(File file) {
+    var pairs = new ArrayList<String>();
+    readFile(file, (processDefinitionId, role) -> {
+      pairs.add(processDefinitionId);
+      pairs.add(role);
+    });
+    return pairs;
+  }
+
+  private List<String> getParsedFile(CompletableFuture<List<String>> parsedFile) {
+    try {
+      return parsedFile.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private void readConfig(JsonParser parser, BiConsumer<String, String> consumer)
+      throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Config must be an object");
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var fieldName = parser.getCurrentName();
+      var token = parser.nextToken();
+      if (AUTHORIZATION.equals(fieldName) && isPresent(parser, token, JsonToken.START_OBJECT)) {
+        readAuthorization(parser, consumer);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private void readAuthorization(JsonParser parser, BiConsumer<String, String> consumer)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var fieldName = parser.getCurrentName();
+      var token = parser.nextToken();
+      if (PROCESS_DEFINITIONS.equals(fieldName)
+          && isPresent(parser, token, JsonToken.START_ARRAY)) {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          if (isPresent(parser, parser.currentToken(), JsonToken.START_OBJECT)) {
+            readProcessDefinition(parser, consumer);
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  private void readProcessDefinition(JsonParser parser, BiConsumer<String, String> consumer)
+      throws IOException {
+    String processDefinitionId = null;
+    List<String> roles = List.of();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      var fieldName = parser.getCurrentName();
+      var token = parser.nextToken();
+      if (PROCESS_DEFINITION_ID.equals(fieldName)) {
+        processDefinitionId = readScalar(parser, token);
+      } else if (ROLES.equals(fieldName) && isPresent(parser, token, JsonToken.START_ARRAY)) {
+        roles = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          roles.add(readScalar(parser, parser.currentToken()));
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    for (var role : roles) {
+      consumer.accept(processDefinitionId, role);
+    }
+  }
+
+  private String readScalar(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw new JsonParseException(parser, "Expected scalar value");
+    }
+    return parser.getValueAsString();
+  }
+
+  private boolean isPresent(JsonParser parser, JsonToken token, JsonToken expectedToken)
+      throws JsonParseException {
+    if (token == JsonToken.VALUE_NULL) {
+      return false;
+    }
+    if (token != expectedToken) {
+      throw new JsonParseException(parser, String.format("Expected %s", expectedToken));
+    }
+    return true;
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves {@code AUTH_FILES} entries to config files. An entry is a config file, a directory with
+ * config files ({@code .yml} and {@code .yaml} files of the directory and its subdirectories) or a
+ * glob pattern, e.g. {@code configs/*.yml}. Directories are walked in parallel, files matched by a
+ * directory or a pattern are sorted by path, so the same tree always gives the same order.
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthFilesResolver {
+
+  private static final String GLOB_CHARACTERS = "*?[{";
+  private static final PathMatcher CONFIG_FILE_MATCHER = FileSystems.getDefault()
+      .getPathMatcher("glob:*.{yml,yaml}");
+
+  private final ParsingProperties parsingProperties;
+
+  /**
+   * @param authFiles config files, directories or glob patterns divided by comma, commas inside
+   *                  braces of a pattern, e.g. {@code *.{yml,yaml}}, don't divide entries.
+   * @return config files in entries order, a file matched by several entries is kept once.
+   * @throws IllegalArgumentException if a directory or a pattern has no config files or can't be
+   *                                  read.
+   */
+  public List<File> resolve(String authFiles) {
+    var pool = new ForkJoinPool(Math.max(1, parsingProperties.getParallelism()));
+    try {
+      var files = new LinkedHashSet<File>();
+      for (var entry : split(authFiles)) {
+        files.addAll(resolve(entry, pool));
+      }
+      return new ArrayList<>(files);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * @param authFiles config files, directories or glob patterns divided by comma.
+   * @return directories of directory and pattern entries, config files added to them or to their
+   *         subdirectories are resolved too. File entries have no directories.
+   */
+  public List<Path> resolveDirectories(String authFiles) {
+    var directories = new ArrayList<Path>();
+    for (var entry : split(authFiles)) {
+      var globStart = indexOfGlob(entry);
+      if (globStart >= 0 || Files.isDirectory(Path.of(entry))) {
+        directories.add(getDirectory(entry, globStart));
+      }
+    }
+    return directories;
+  }
+
+  private List<File> resolve(String entry, ForkJoinPool pool) {
+    var globStart = indexOfGlob(entry);
+    if (globStart < 0 && !Files.isDirectory(Path.of(entry))) {
+      // a missing file is reported by the reader, like any other invalid file
+      return List.of(new File(entry));
+    }
+    var directory = getDirectory(entry, globStart);
+    PathMatcher matcher = globStart < 0
+        ? path -> CONFIG_FILE_MATCHER.matches(path.getFileName())
+        : FileSystems.getDefault().getPathMatcher(
+            "glob:" + entry.substring(entry.lastIndexOf('/', globStart) + 1));
+    List<Path> files;
+    try {
+      files = Files.isDirectory(directory) ? pool.invoke(new DirectoryScan(directory)) : List.of();
+    } catch (UncheckedIOException e) {
+      throw new IllegalArgumentException(
+          String.format("Config files can't be listed: %s", entry), e);
+    }
+    var matchedFiles = files.stream()
+        .filter(file -> matcher.matches(directory.relativize(file)))
+        .sorted()
+        .map(Path::toFile)
+        .collect(Collectors.toList());
+    if (matchedFiles.isEmpty()) {
+      throw new IllegalArgumentException(String.format("Config files are not found: %s", entry));
+    }
+    return matchedFiles;
+  }
+
+  private Path getDirectory(String entry, int globStart) {
+    if (globStart < 0) {
+      return Path.of(entry);
+    }
+    // the pattern is matched against paths relative to its longest directory without globs
+    var directoryEnd = entry.lastIndexOf('/', globStart) + 1;
+    return Path.of(directoryEnd == 0 ? "." : entry.substring(0, directoryEnd));
+  }
+
+  private List<String> split(String authFiles) {
+    var entries = new ArrayList<String>();
+    var entryStart = 0;
+    var braceDepth = 0;
+    for (var i = 0; i < authFiles.length(); i++) {
+      var c = authFiles.charAt(i);
+      if (c == '{') {
+        braceDepth++;
+      } else if (c == '}') {
+        braceDepth = Math.max(0, braceDepth - 1);
+      } else if (c == ',' && braceDepth == 0) {
+        entries.add(authFiles.substring(entryStart, i));
+        entryStart = i + 1;
+      }
+    }
+    entries.add(authFiles.substring(entryStart));
+    return entries;
+  }
+
+  private int indexOfGlob(String entry) {
+    for (var i = 0; i < entry.length(); i++) {
+      if (GLOB_CHARACTERS.indexOf(entry.charAt(i)) >= 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Lists regular files of a directory and its subdirectories, every subdirectory is listed by a
+   * separate task. Symbolic links to directories are not followed, so there are no cycles.
+   */
+  private static final class DirectoryScan extends RecursiveTask<List<Path>> {
+
+    private final Path directory;
+
+    private DirectoryScan(Path directory) {
+      this.directory = directory;
+    }
+
+    @Override
+    protected List<Path> compute() {
+      var files = new ArrayList<Path>();
+      var subdirectoryScans = new ArrayList<DirectoryScan>();
+      try (var entries = Files.newDirectoryStream(directory)) {
+        for (var entry : entries) {
+          if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+            var scan = new DirectoryScan(entry);
+            scan.fork();
+            subdirectoryScans.add(scan);
+          } else if (Files.isRegularFile(entry)) {
+            files.add(entry);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      subdirectoryScans.forEach(scan -> files.addAll(scan.join()));
+      return files;
+    }
+  }
+}
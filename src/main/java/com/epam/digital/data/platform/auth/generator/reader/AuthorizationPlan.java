@@ -0,0 +1,320 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable set of (process definition id, role) pairs in config files order. Every distinct
+ * process definition id and role is kept once in a dictionary, pairs are kept as indexes of the
+ * dictionaries in primitive arrays. DTOs are created only when a chunk of pairs is iterated, e.g.
+ * while it is serialized.
+ * <p>
+ * Entries of the same process definition in several config files are merged and a role listed
+ * more than once for a process definition is kept once: only the first occurrence of a pair is
+ * kept, so no duplicate authorizations are sent to bpms. Duplicates are found once all pairs are
+ * read, by a sorted array of packed pair keys rather than a set of boxed keys.
+ */
+@Slf4j
+public final class AuthorizationPlan implements AuthorizationSource {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final List<String> processDefinitionIds;
+  private final List<String> roles;
+  private final Map<String, Integer> processDefinitionIndexes;
+  private final Map<String, Integer> roleIndexes;
+  private final int[] pairProcessDefinitions;
+  private final int[] pairRoles;
+  private final int collapsedPairCount;
+  private final BitSet collapsedProcessDefinitions;
+
+  private AuthorizationPlan(Map<String, Integer> processDefinitionIndexes,
+      Map<String, Integer> roleIndexes, int[] pairProcessDefinitions, int[] pairRoles,
+      int collapsedPairCount, BitSet collapsedProcessDefinitions) {
+    this.processDefinitionIds = dictionary(processDefinitionIndexes);
+    this.roles = dictionary(roleIndexes);
+    this.processDefinitionIndexes = processDefinitionIndexes;
+    this.roleIndexes = roleIndexes;
+    this.pairProcessDefinitions = pairProcessDefinitions;
+    this.pairRoles = pairRoles;
+    this.collapsedPairCount = collapsedPairCount;
+    this.collapsedProcessDefinitions = collapsedProcessDefinitions;
+  }
+
+  /**
+   * Create plan of already deduplicated pairs, e.g. read from a snapshot. Pairs are not checked
+   * for duplicates, so they must come from another plan.
+   *
+   * @param processDefinitionIds   distinct process definition ids.
+   * @param roles                  distinct roles.
+   * @param pairProcessDefinitions indexes of process definition ids of pairs.
+   * @param pairRoles              indexes of roles of pairs.
+   * @return plan with the pairs.
+   * @throws IllegalArgumentException if dictionaries have duplicates or an index is out of its
+   *                                  dictionary.
+   */
+  static AuthorizationPlan of(String[] processDefinitionIds, String[] roles,
+      int[] pairProcessDefinitions, int[] pairRoles) {
+    if (pairProcessDefinitions.length != pairRoles.length) {
+      throw new IllegalArgumentException("Numbers of pair process definitions and roles differ");
+    }
+    for (var i = 0; i < pairRoles.length; i++) {
+      if (pairProcessDefinitions[i] < 0 || pairProcessDefinitions[i] >= processDefinitionIds.length
+          || pairRoles[i] < 0 || pairRoles[i] >= roles.length) {
+        throw new IllegalArgumentException(String.format("Pair %d is out of dictionaries", i));
+      }
+    }
+    return new AuthorizationPlan(indexes(processDefinitionIds), indexes(roles),
+        pairProcessDefinitions, pairRoles, 0, new BitSet());
+  }
+
+  private static Map<String, Integer> indexes(String[] values) {
+    var indexes = new LinkedHashMap<String, Integer>(values.length * 4 / 3 + 1);
+    for (var i = 0; i < values.length; i++) {
+      if (indexes.put(values[i], i) != null) {
+        throw new IllegalArgumentException(
+            String.format("Dictionary value is repeated: %s", values[i]));
+      }
+    }
+    return indexes;
+  }
+
+  private static List<String> dictionary(Map<String, Integer> indexes) {
+    return Collections.unmodifiableList(
+        Arrays.asList(indexes.keySet().toArray(String[]::new)));
+  }
+
+  /**
+   * Read all pairs of the source in one pass.
+   *
+   * @param authorizationSource pairs of process definitions and roles.
+   * @return plan with the same pairs, the source itself if it is a plan already.
+   */
+  public static AuthorizationPlan from(AuthorizationSource authorizationSource) {
+    if (authorizationSource instanceof AuthorizationPlan) {
+      return (AuthorizationPlan) authorizationSource;
+    }
+    var plan = read(authorizationSource);
+    if (plan.getCollapsedPairCount() > 0) {
+      log.info("Duplicate pairs collapsed: {}, process definitions merged: {}",
+          plan.getCollapsedPairCount(), plan.collapsedProcessDefinitions.cardinality());
+      log.debug("Merged process definitions: {}", plan.getCollapsedProcessDefinitionIds());
+    }
+    return plan;
+  }
+
+  /**
+   * Read all pairs of the source in one pass without logging collapsed pairs, e.g. for plans of
+   * single files that are merged later.
+   *
+   * @param authorizationSource pairs of process definitions and roles.
+   * @return plan with the same pairs, the source itself if it is a plan already.
+   */
+  static AuthorizationPlan read(AuthorizationSource authorizationSource) {
+    if (authorizationSource instanceof AuthorizationPlan) {
+      return (AuthorizationPlan) authorizationSource;
+    }
+    var builder = new Builder();
+    authorizationSource.forEachPair(builder::add);
+    builder.removeDuplicates();
+    return new AuthorizationPlan(builder.processDefinitionIds, builder.roles,
+        Arrays.copyOf(builder.pairProcessDefinitions, builder.size),
+        Arrays.copyOf(builder.pairRoles, builder.size), builder.collapsedPairCount,
+        builder.collapsedProcessDefinitions);
+  }
+
+  @Override
+  public void forEachPair(BiConsumer<String, String> consumer) {
+    for (var i = 0; i < pairRoles.length; i++) {
+      consumer.accept(processDefinitionIds.get(pairProcessDefinitions[i]),
+          roles.get(pairRoles[i]));
+    }
+  }
+
+  @Override
+  public AuthorizationSource buffered() {
+    return this;
+  }
+
+  /**
+   * @return number of distinct pairs.
+   */
+  public int size() {
+    return pairRoles.length;
+  }
+
+  /**
+   * @return distinct roles in order of their first occurrence.
+   */
+  public List<String> getRoles() {
+    return roles;
+  }
+
+  /**
+   * @return distinct process definition ids in order of their first occurrence.
+   */
+  public List<String> getProcessDefinitionIds() {
+    return processDefinitionIds;
+  }
+
+  /**
+   * @return number of pairs of the source that repeated an earlier pair and were dropped.
+   */
+  public int getCollapsedPairCount() {
+    return collapsedPairCount;
+  }
+
+  /**
+   * @return distinct process definition ids that had duplicate pairs, in order of their first
+   * occurrence.
+   */
+  public List<String> getCollapsedProcessDefinitionIds() {
+    return collapsedProcessDefinitions.stream()
+        .mapToObj(processDefinitionIds::get)
+        .collect(Collectors.toList());
+  }
+
+  public int getProcessDefinitionIndex(int pair) {
+    return pairProcessDefinitions[pair];
+  }
+
+  public int getRoleIndex(int pair) {
+    return pairRoles[pair];
+  }
+
+  /**
+   * @param processDefinitionId process definition id.
+   * @return index of the process definition id in {@link #getProcessDefinitionIds()}, -1 if the
+   * plan has no such process definition.
+   */
+  public int indexOfProcessDefinition(String processDefinitionId) {
+    return processDefinitionIndexes.getOrDefault(processDefinitionId, -1);
+  }
+
+  /**
+   * @param role role.
+   * @return index of the role in {@link #getRoles()}, -1 if the plan has no such role.
+   */
+  public int indexOfRole(String role) {
+    return roleIndexes.getOrDefault(role, -1);
+  }
+
+  /**
+   * View of pairs from {@code fromPair} (inclusive) to {@code toPair} (exclusive). Every call of
+   * {@code get} creates a new DTO, nothing is kept by the view.
+   *
+   * @param fromPair first pair.
+   * @param toPair   pair after the last one.
+   * @return list of process-definition authorizations.
+   */
+  public List<ProcessDefinitionAuthDto> processDefinitionAuths(int fromPair, int toPair) {
+    if (fromPair < 0 || toPair > size() || fromPair > toPair) {
+      throw new IndexOutOfBoundsException(
+          String.format("Pairs %d-%d are out of plan of %d pairs", fromPair, toPair, size()));
+    }
+    return new AbstractList<>() {
+      @Override
+      public ProcessDefinitionAuthDto get(int index) {
+        var pair = fromPair + index;
+        return new ProcessDefinitionAuthDto(roles.get(pairRoles[pair]),
+            processDefinitionIds.get(pairProcessDefinitions[pair]));
+      }
+
+      @Override
+      public int size() {
+        return toPair - fromPair;
+      }
+    };
+  }
+
+  private static class Builder {
+
+    private final Map<String, Integer> processDefinitionIds = new LinkedHashMap<>();
+    private final Map<String, Integer> roles = new LinkedHashMap<>();
+    private int[] pairProcessDefinitions = new int[INITIAL_CAPACITY];
+    private int[] pairRoles = new int[INITIAL_CAPACITY];
+    private final BitSet collapsedProcessDefinitions = new BitSet();
+    private int size;
+    private int collapsedPairCount;
+
+    private void add(String processDefinitionId, String role) {
+      var processDefinitionIndex = indexOf(processDefinitionIds, processDefinitionId);
+      var roleIndex = indexOf(roles, role);
+      if (size == pairRoles.length) {
+        pairProcessDefinitions = Arrays.copyOf(pairProcessDefinitions, size * 2);
+        pairRoles = Arrays.copyOf(pairRoles, size * 2);
+      }
+      pairProcessDefinitions[size] = processDefinitionIndex;
+      pairRoles[size] = roleIndex;
+      size++;
+    }
+
+    /**
+     * Keeps the first occurrence of every pair in place, later occurrences are dropped.
+     */
+    private void removeDuplicates() {
+      var keys = new long[size];
+      for (var i = 0; i < size; i++) {
+        keys[i] = pairKey(i);
+      }
+      Arrays.sort(keys);
+      var distinctCount = 0;
+      for (var i = 0; i < size; i++) {
+        if (i == 0 || keys[i] != keys[distinctCount - 1]) {
+          keys[distinctCount++] = keys[i];
+        }
+      }
+      if (distinctCount == size) {
+        return;
+      }
+      var keptKeys = new BitSet(distinctCount);
+      var keptCount = 0;
+      for (var i = 0; i < size; i++) {
+        var key = Arrays.binarySearch(keys, 0, distinctCount, pairKey(i));
+        if (keptKeys.get(key)) {
+          collapsedPairCount++;
+          collapsedProcessDefinitions.set(pairProcessDefinitions[i]);
+          continue;
+        }
+        keptKeys.set(key);
+        pairProcessDefinitions[keptCount] = pairProcessDefinitions[i];
+        pairRoles[keptCount] = pairRoles[i];
+        keptCount++;
+      }
+      size = keptCount;
+    }
+
+    private long pairKey(int pair) {
+      return ((long) pairProcessDefinitions[pair] << 32) | pairRoles[pair];
+    }
+
+    private int indexOf(Map<String, Integer> dictionary, String value) {
+      return dictionary.computeIfAbsent(value, v -> dictionary.size());
+    }
+  }
+}
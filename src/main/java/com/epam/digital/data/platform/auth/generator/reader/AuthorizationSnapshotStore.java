@@ -0,0 +1,204 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles config files to a binary snapshot of their plan and reads it back without parsing YAML.
+ * The snapshot is a header (magic, format version, CRC32 and length of the payload) followed by
+ * the payload: process definition ids and roles dictionaries (UTF-8 strings prefixed by their
+ * lengths, -1 for a missing value) and process definition and role indexes of every pair. All
+ * numbers are big-endian.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuthorizationSnapshotStore {
+
+  static final int MAGIC = 0x43415553;
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 24;
+  private static final int NULL_LENGTH = -1;
+
+  private final AuthConfigStreamReader authConfigStreamReader;
+
+  /**
+   * Read config files and write their plan to a snapshot. The file is replaced atomically, so an
+   * interrupted write never leaves a partially written snapshot.
+   *
+   * @param authFiles    config files.
+   * @param snapshotFile snapshot file.
+   * @return plan written to the snapshot.
+   * @throws IllegalArgumentException if any of config files is invalid.
+   */
+  public AuthorizationPlan compile(List<File> authFiles, Path snapshotFile) {
+    var plan = AuthorizationPlan.from(authConfigStreamReader.fromFiles(authFiles));
+    write(plan, snapshotFile);
+    log.info("Snapshot {} is compiled: {} pairs of {} process definitions and {} roles",
+        snapshotFile, plan.size(), plan.getProcessDefinitionIds().size(), plan.getRoles().size());
+    return plan;
+  }
+
+  /**
+   * @param plan         plan.
+   * @param snapshotFile snapshot file.
+   */
+  public void write(AuthorizationPlan plan, Path snapshotFile) {
+    try {
+      var directory = snapshotFile.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      var tempFile = Files.createTempFile(directory, snapshotFile.getFileName().toString(), ".tmp");
+      try (var channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+        channel.position(HEADER_SIZE);
+        var crc = new CRC32();
+        var payload = new DataOutputStream(new CheckedOutputStream(
+            new BufferedOutputStream(Channels.newOutputStream(channel)), crc));
+        writeDictionary(payload, plan.getProcessDefinitionIds());
+        writeDictionary(payload, plan.getRoles());
+        payload.writeInt(plan.size());
+        for (var pair = 0; pair < plan.size(); pair++) {
+          payload.writeInt(plan.getProcessDefinitionIndex(pair));
+        }
+        for (var pair = 0; pair < plan.size(); pair++) {
+          payload.writeInt(plan.getRoleIndex(pair));
+        }
+        payload.flush();
+        var header = ByteBuffer.allocate(HEADER_SIZE)
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putLong(crc.getValue())
+            .putLong(payload.size())
+            .flip();
+        channel.write(header, 0);
+      }
+      Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Couldn't write snapshot: %s", snapshotFile), e);
+    }
+  }
+
+  /**
+   * Memory-map the snapshot and read its plan.
+   *
+   * @param snapshotFile snapshot file.
+   * @return plan of the snapshot.
+   * @throws IllegalArgumentException if the file is not a snapshot, has another format version or
+   *                                  is corrupted.
+   */
+  public AuthorizationPlan read(Path snapshotFile) {
+    try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        throw invalidSnapshot(snapshotFile, "unexpected size");
+      }
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      var plan = readPlan(buffer, snapshotFile);
+      log.info("Snapshot {} is read: {} pairs", snapshotFile, plan.size());
+      return plan;
+    } catch (IOException e) {
+      throw new IllegalArgumentException(
+          String.format("Invalid authorization snapshot: %s", snapshotFile), e);
+    }
+  }
+
+  private AuthorizationPlan readPlan(MappedByteBuffer buffer, Path snapshotFile) {
+    if (buffer.getInt() != MAGIC) {
+      throw invalidSnapshot(snapshotFile, "not a snapshot");
+    }
+    var version = buffer.getInt();
+    if (version != VERSION) {
+      throw invalidSnapshot(snapshotFile,
+          String.format("format version %d is not supported", version));
+    }
+    var checksum = buffer.getLong();
+    if (buffer.getLong() != buffer.remaining()) {
+      throw invalidSnapshot(snapshotFile, "payload is truncated");
+    }
+    var crc = new CRC32();
+    crc.update(buffer.duplicate());
+    if (crc.getValue() != checksum) {
+      throw invalidSnapshot(snapshotFile, "checksum mismatch");
+    }
+    try {
+      var processDefinitionIds = readDictionary(buffer);
+      var roles = readDictionary(buffer);
+      var pairProcessDefinitions = new int[buffer.getInt()];
+      var pairRoles = new int[pairProcessDefinitions.length];
+      var pairs = buffer.asIntBuffer();
+      pairs.get(pairProcessDefinitions).get(pairRoles);
+      return AuthorizationPlan.of(processDefinitionIds, roles, pairProcessDefinitions, pairRoles);
+    } catch (BufferUnderflowException | NegativeArraySizeException e) {
+      throw invalidSnapshot(snapshotFile, "payload is truncated");
+    } catch (IllegalArgumentException e) {
+      throw invalidSnapshot(snapshotFile, e.getMessage());
+    }
+  }
+
+  private void writeDictionary(DataOutputStream payload, List<String> values) throws IOException {
+    payload.writeInt(values.size());
+    for (var value : values) {
+      if (value == null) {
+        payload.writeInt(NULL_LENGTH);
+        continue;
+      }
+      var bytes = value.getBytes(StandardCharsets.UTF_8);
+      payload.writeInt(bytes.length);
+      payload.write(bytes);
+    }
+  }
+
+  private String[] readDictionary(ByteBuffer buffer) {
+    var values = new String[buffer.getInt()];
+    for (var i = 0; i < values.length; i++) {
+      var length = buffer.getInt();
+      if (length == NULL_LENGTH) {
+        continue;
+      }
+      var bytes = new byte[length];
+      buffer.get(bytes);
+      values[i] = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return values;
+  }
+
+  private IllegalArgumentException invalidSnapshot(Path snapshotFile, String reason) {
+    return new IllegalArgumentException(
+        String.format("Invalid authorization snapshot %s: %s", snapshotFile, reason));
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Source of (process definition id, role) pairs described by config files. Source can be iterated
+ * several times, e.g. when the whole phase is retried.
+ */
+@FunctionalInterface
+public interface AuthorizationSource {
+
+  /**
+   * Pass every (process definition id, role) pair to the consumer in config files order.
+   *
+   * @param consumer consumer of process definition id and role.
+   */
+  void forEachPair(BiConsumer<String, String> consumer);
+
+  /**
+   * Read all pairs once and keep them in memory, so the returned source can be iterated many times
+   * without reading config files again.
+   *
+   * @return in-memory source with the same pairs.
+   */
+  default AuthorizationSource buffered() {
+    return AuthorizationPlan.from(this);
+  }
+}
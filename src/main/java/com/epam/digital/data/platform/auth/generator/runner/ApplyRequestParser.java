@@ -0,0 +1,215 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.runner;
+
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyOptionsDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyRequestDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.BpmsTargetDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.DaemonSettingsDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyMode;
+import com.epam.digital.data.platform.auth.generator.reader.AuthFilesResolver;
+import com.epam.digital.data.platform.auth.generator.util.ArgsParserUtil;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads apply parameters from command line arguments of the cli run and of requests to the daemon.
+ * Daemon requests can't set bpms tokens and output files, they are fixed on daemon start.
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplyRequestParser {
+
+  private static final String DEFAULT_PLAN_FILE = "authorization-plan.json";
+  private static final String SNAPSHOT_FILE = "AUTH_SNAPSHOT";
+  private static final String DEFAULT_SNAPSHOT_FILE = "authorization-snapshot.bin";
+  private static final List<String> DAEMON_START_ONLY_ARGS = List.of("BPMS_TOKEN", "STATE_FILE",
+      "JOURNAL_DIR", "PLAN_FILE", "DAEMON_PORT", "DAEMON_SECRET");
+
+  private final AuthFilesResolver authFilesResolver;
+
+  /**
+   * @param args command line arguments.
+   * @return targets with their tokens read, config files and apply options.
+   * @throws IllegalArgumentException if required arguments are missing or invalid.
+   * @throws IOException              if a token file can't be read.
+   */
+  public ApplyRequestDto parse(ApplicationArguments args) throws IOException {
+    var snapshotFile = getPathOrNull(SNAPSHOT_FILE, args);
+    var authFileEntries = snapshotFile == null ? getAuthFileEntries(args) : null;
+    return ApplyRequestDto.builder()
+        .targets(getTargets(args))
+        .authFileEntries(authFileEntries)
+        .authFiles(authFileEntries == null ? List.of() : authFilesResolver.resolve(authFileEntries))
+        .snapshotFile(snapshotFile)
+        .options(ApplyOptionsDto.builder()
+            .mode(getApplyMode(args))
+            .stateFile(getPathOrNull("STATE_FILE", args))
+            .journalDir(getPathOrNull("JOURNAL_DIR", args))
+            .force(ArgsParserUtil.isFlagSet("FORCE", args))
+            .build())
+        .planFile(Path.of(
+            ArgsParserUtil.getSingleParamOrDefault("PLAN_FILE", DEFAULT_PLAN_FILE, args)))
+        .build();
+  }
+
+  /**
+   * Read parameters of the {@code compile} command, it doesn't need bpms urls and tokens.
+   *
+   * @param args command line arguments.
+   * @return config files and the snapshot file.
+   * @throws IllegalArgumentException if config files are missing or invalid.
+   */
+  public ApplyRequestDto parseCompile(ApplicationArguments args) {
+    var authFileEntries = getAuthFileEntries(args);
+    return ApplyRequestDto.builder()
+        .authFileEntries(authFileEntries)
+        .authFiles(authFilesResolver.resolve(authFileEntries))
+        .snapshotFile(Path.of(
+            ArgsParserUtil.getSingleParamOrDefault(SNAPSHOT_FILE, DEFAULT_SNAPSHOT_FILE, args)))
+        .build();
+  }
+
+  /**
+   * Read parameters of the daemon start, the secret file and token files are read right away, so a
+   * misconfigured daemon doesn't start.
+   *
+   * @param args command line arguments.
+   * @return port, secret, configured bpms and output files of the daemon.
+   * @throws IllegalArgumentException if required arguments are missing or the secret is empty.
+   * @throws IOException              if the secret file or a token file can't be read.
+   */
+  public DaemonSettingsDto parseDaemon(ApplicationArguments args) throws IOException {
+    var port = ArgsParserUtil.getSingleParamOrThrow("DAEMON_PORT", "Daemon port is not found",
+        args);
+    var secretFile = ArgsParserUtil.getSingleParamOrThrow("DAEMON_SECRET",
+        "Daemon secret is not found", args);
+    var secret = Files.readString(Path.of(secretFile), StandardCharsets.UTF_8).strip();
+    if (secret.isEmpty()) {
+      throw new IllegalArgumentException("Daemon secret is empty");
+    }
+    var bpmsUrls = getBpmsUrls(args);
+    var tokenFiles = getTokenFiles(bpmsUrls, args);
+    readTargets(bpmsUrls, tokenFiles);
+    return DaemonSettingsDto.builder()
+        .port(Integer.parseInt(port))
+        .secret(secret)
+        .bpmsUrls(bpmsUrls)
+        .tokenFiles(tokenFiles)
+        .stateFile(getPathOrNull("STATE_FILE", args))
+        .journalDir(getPathOrNull("JOURNAL_DIR", args))
+        .build();
+  }
+
+  /**
+   * Read parameters of a daemon request. {@code BPMS_URL} is optional and selects some of the
+   * configured bpms, tokens are read again from the files configured on start.
+   *
+   * @param args     request arguments.
+   * @param settings daemon settings.
+   * @return request of the selected targets with the daemon output files.
+   * @throws IllegalArgumentException if arguments are invalid, try to set what is fixed on start or
+   *                                  select a bpms that isn't configured.
+   * @throws IOException              if a token file can't be read.
+   */
+  public ApplyRequestDto parseDaemonRequest(ApplicationArguments args,
+      DaemonSettingsDto settings) throws IOException {
+    for (var key : DAEMON_START_ONLY_ARGS) {
+      if (args.containsOption(key)) {
+        throw new IllegalArgumentException(
+            String.format("%s is set on daemon start and can't be set by a request", key));
+      }
+    }
+    var bpmsUrls = args.containsOption("BPMS_URL") ? getBpmsUrls(args) : settings.getBpmsUrls();
+    var tokenFiles = new ArrayList<Path>(bpmsUrls.size());
+    for (var bpmsUrl : bpmsUrls) {
+      var index = settings.getBpmsUrls().indexOf(bpmsUrl);
+      if (index < 0) {
+        throw new IllegalArgumentException(
+            String.format("Bpms url %s is not configured on daemon start", bpmsUrl));
+      }
+      tokenFiles.add(settings.getTokenFiles().get(index));
+    }
+    var snapshotFile = getPathOrNull(SNAPSHOT_FILE, args);
+    var authFileEntries = snapshotFile == null ? getAuthFileEntries(args) : null;
+    return ApplyRequestDto.builder()
+        .targets(readTargets(bpmsUrls, tokenFiles))
+        .authFileEntries(authFileEntries)
+        .authFiles(authFileEntries == null ? List.of() : authFilesResolver.resolve(authFileEntries))
+        .snapshotFile(snapshotFile)
+        .options(ApplyOptionsDto.builder()
+            .mode(getApplyMode(args))
+            .stateFile(settings.getStateFile())
+            .journalDir(settings.getJournalDir())
+            .force(ArgsParserUtil.isFlagSet("FORCE", args))
+            .build())
+        .build();
+  }
+
+  private List<BpmsTargetDto> getTargets(ApplicationArguments args)
+      throws IOException {
+    var bpmsUrls = getBpmsUrls(args);
+    return readTargets(bpmsUrls, getTokenFiles(bpmsUrls, args));
+  }
+
+  private List<String> getBpmsUrls(ApplicationArguments args) {
+    return ArgsParserUtil.getListParamOrThrow("BPMS_URL", "Bpms url is not found", args);
+  }
+
+  private List<Path> getTokenFiles(List<String> bpmsUrls, ApplicationArguments args) {
+    var tokenFiles = ArgsParserUtil.getListParamOrThrow("BPMS_TOKEN", "Bpms token is not found",
+        args);
+    if (bpmsUrls.size() != tokenFiles.size()) {
+      throw new IllegalArgumentException(String.format(
+          "Number of bpms urls (%d) doesn't match number of bpms tokens (%d)", bpmsUrls.size(),
+          tokenFiles.size()));
+    }
+    return tokenFiles.stream().map(Path::of).collect(Collectors.toList());
+  }
+
+  private List<BpmsTargetDto> readTargets(List<String> bpmsUrls, List<Path> tokenFiles)
+      throws IOException {
+    var targets = new ArrayList<BpmsTargetDto>(bpmsUrls.size());
+    for (var i = 0; i < bpmsUrls.size(); i++) {
+      var token = Files.readString(tokenFiles.get(i), StandardCharsets.UTF_8);
+      targets.add(new BpmsTargetDto(bpmsUrls.get(i), token));
+    }
+    return targets;
+  }
+
+  private Path getPathOrNull(String key, ApplicationArguments args) {
+    var value = ArgsParserUtil.getSingleParamOrDefault(key, null, args);
+    return value == null ? null : Path.of(value);
+  }
+
+  private ApplyMode getApplyMode(ApplicationArguments args) {
+    var mode = ArgsParserUtil.getSingleParamOrDefault("MODE", ApplyMode.RECREATE.getValue(), args);
+    return ApplyMode.fromValue(mode);
+  }
+
+  private String getAuthFileEntries(ApplicationArguments args) {
+    return ArgsParserUtil.getSingleParamOrThrow("AUTH_FILES", "Config files are not found", args);
+  }
+}
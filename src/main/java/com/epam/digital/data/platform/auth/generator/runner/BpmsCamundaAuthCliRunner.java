@@ -16,62 +16,100 @@
 
 package com.epam.digital.data.platform.auth.generator.runner;
 
-import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
-import com.epam.digital.data.platform.auth.generator.service.AuthService;
+import com.epam.digital.data.platform.auth.generator.daemon.AuthFilesWatcher;
+import com.epam.digital.data.platform.auth.generator.daemon.DaemonServer;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyRequestDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyMode;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyStatus;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSnapshotStore;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
 import com.epam.digital.data.platform.auth.generator.util.ArgsParserUtil;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
-@Profile("!test")
+@Profile("!test & !boot-only")
 @RequiredArgsConstructor
 public class BpmsCamundaAuthCliRunner implements ApplicationRunner {
 
-  private final AuthService authService;
-  private final ObjectMapper ymlObjectMapper;
+  private static final String COMPILE_COMMAND = "compile";
+
+  private final ApplyService applyService;
+  private final ApplyRequestParser applyRequestParser;
+  private final DaemonServer daemonServer;
+  private final AuthFilesWatcher authFilesWatcher;
+  private final AuthorizationSnapshotStore authorizationSnapshotStore;
+  private final ObjectMapper objectMapper;
 
   @Override
   public void run(ApplicationArguments args) throws IOException {
-    var bpmsUrl = ArgsParserUtil.getSingleParamOrThrow("BPMS_URL", "Bpms url is not found", args);
-    var bpmsToken = getBpmsToken(args);
-    var authConfigDtos = getAuthConfigurations(args);
+    if (ArgsParserUtil.getSingleParamOrDefault("DAEMON_PORT", null, args) != null) {
+      // the server keeps the application running until it is stopped
+      daemonServer.start(applyRequestParser.parseDaemon(args));
+      return;
+    }
 
-    authService.cleanAuthorizations(bpmsUrl, bpmsToken);
-    authService.createAuthorizations(bpmsUrl, bpmsToken, authConfigDtos);
-  }
+    if (args.getNonOptionArgs().contains(COMPILE_COMMAND)) {
+      var request = applyRequestParser.parseCompile(args);
+      authorizationSnapshotStore.compile(request.getAuthFiles(), request.getSnapshotFile());
+      return;
+    }
 
-  private String getBpmsToken(ApplicationArguments args) throws IOException {
-    var filePath = ArgsParserUtil.getSingleParamOrThrow("BPMS_TOKEN", "Bpms token is not found", args);
-    return Files.readString(Path.of(filePath), StandardCharsets.UTF_8);
-  }
+    var request = applyRequestParser.parse(args);
+    if (ArgsParserUtil.isFlagSet("WATCH", args)) {
+      if (request.getSnapshotFile() != null) {
+        throw new IllegalArgumentException("Snapshot can't be watched, config files are needed");
+      }
+      authFilesWatcher.watch(request);
+      return;
+    }
+    var targets = request.getTargets();
+    var options = request.getOptions();
+    if (options.getMode() == ApplyMode.PLAN) {
+      var results = applyToAll(request);
+      results.forEach(applyService::logResult);
+      objectMapper.writerWithDefaultPrettyPrinter()
+          .writeValue(request.getPlanFile().toFile(), results);
+      log.info("Plan is written to {}, authorizations to delete: {}, to create: {}",
+          request.getPlanFile(), results.stream().mapToLong(ApplyResultDto::getDeleted).sum(),
+          results.stream().mapToLong(ApplyResultDto::getCreated).sum());
+      throwIfFailed(results, "Authorizations are not planned for %d of %d bpms");
+      return;
+    }
+    if (targets.size() == 1 && request.getSnapshotFile() == null) {
+      applyService.apply(targets.get(0), request.getAuthFiles(), options);
+      return;
+    }
 
-  private List<AuthConfigDto> getAuthConfigurations(ApplicationArguments args) {
-    var filePaths = ArgsParserUtil.getSingleParamOrThrow("AUTH_FILES", "Config files are not found", args);
-    var files = Stream.of(filePaths.split(",")).map(File::new).collect(Collectors.toList());
-    return deserializeAuthConfigDtos(files);
+    var results = applyToAll(request);
+    results.forEach(applyService::logResult);
+    throwIfFailed(results, "Authorizations are not applied to %d of %d bpms");
   }
 
-  private List<AuthConfigDto> deserializeAuthConfigDtos(List<File> files) {
-    return files.stream().map(this::deserializeAuthConfigDto).collect(Collectors.toList());
+  private List<ApplyResultDto> applyToAll(ApplyRequestDto request) {
+    var targets = request.getTargets();
+    if (request.getSnapshotFile() != null) {
+      var plan = authorizationSnapshotStore.read(request.getSnapshotFile());
+      return applyService.applyToAll(targets, plan, request.getOptions());
+    }
+    return targets.size() == 1
+        ? List.of(applyService.apply(targets.get(0), request.getAuthFiles(), request.getOptions()))
+        : applyService.applyToAll(targets, request.getAuthFiles(), request.getOptions());
   }
 
-  private AuthConfigDto deserializeAuthConfigDto(File file) {
-    try {
-      return ymlObjectMapper.readValue(file, AuthConfigDto.class);
-    } catch (IOException e) {
-      throw new IllegalArgumentException(String.format("Invalid configuration: %s", file));
+  private void throwIfFailed(List<ApplyResultDto> results, String messageFormat) {
+    var failedCount = results.stream().filter(r -> r.getStatus() == ApplyStatus.FAILED).count();
+    if (failedCount > 0) {
+      throw new IllegalStateException(String.format(messageFormat, failedCount, results.size()));
     }
   }
 }
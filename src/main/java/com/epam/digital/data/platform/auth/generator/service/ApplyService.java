@@ -0,0 +1,251 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.service;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyOptionsDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.BpmsTargetDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyMode;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyStatus;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigStreamReader;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import com.epam.digital.data.platform.auth.generator.state.ApplyJournal;
+import com.epam.digital.data.platform.auth.generator.state.ApplyStateStore;
+import com.epam.digital.data.platform.auth.generator.util.AuthorizationFingerprintUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Applies config files to one or many bpms, taking care of the state file and the journal of
+ * every bpms.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApplyService {
+
+  public static final String APPLY_METRIC = "bpms.apply";
+  public static final String READ_METRIC = "auth.files.read";
+
+  private final AuthService authService;
+  private final AuthConfigStreamReader authConfigStreamReader;
+  private final ApplyStateStore applyStateStore;
+  private final BatchProperties batchProperties;
+  private final MeterRegistry meterRegistry;
+
+  /**
+   * Apply config files to a single bpms. Config files are read while authorizations are sent.
+   *
+   * @param target    bpms url and token.
+   * @param authFiles config files.
+   * @param options   apply options.
+   * @return result of the apply.
+   * @throws IllegalArgumentException if any of config files is invalid.
+   */
+  public ApplyResultDto apply(BpmsTargetDto target, List<File> authFiles,
+      ApplyOptionsDto options) {
+    var authorizationSource = authConfigStreamReader.fromFiles(authFiles);
+    var startTime = System.nanoTime();
+    try {
+      var result = applyToTarget(target, authorizationSource, options,
+          () -> meterRegistry.timer(READ_METRIC)
+              .record(() -> authConfigStreamReader.validate(authFiles)));
+      recordApply(result);
+      return result;
+    } catch (RuntimeException e) {
+      recordApply(failedResult(target, startTime, e));
+      throw e;
+    }
+  }
+
+  /**
+   * Apply config files to all bpms at the same time. Config files are read once before anything is
+   * sent, a failure of one bpms doesn't stop the others.
+   *
+   * @param targets   bpms urls and tokens.
+   * @param authFiles config files.
+   * @param options   apply options.
+   * @return results in targets order.
+   * @throws IllegalArgumentException if any of config files is invalid.
+   */
+  public List<ApplyResultDto> applyToAll(List<BpmsTargetDto> targets, List<File> authFiles,
+      ApplyOptionsDto options) {
+    var authorizationSource = meterRegistry.timer(READ_METRIC)
+        .record(() -> authConfigStreamReader.fromFiles(authFiles).buffered());
+    return applyToAll(targets, authorizationSource, options);
+  }
+
+  /**
+   * Apply already read pairs to all bpms at the same time, a failure of one bpms doesn't stop the
+   * others.
+   *
+   * @param targets             bpms urls and tokens.
+   * @param authorizationSource pairs of process definitions and roles, it is iterated once per
+   *                            bpms, so it should be buffered.
+   * @param options             apply options.
+   * @return results in targets order.
+   */
+  public List<ApplyResultDto> applyToAll(List<BpmsTargetDto> targets,
+      AuthorizationSource authorizationSource, ApplyOptionsDto options) {
+    var executor = Executors.newFixedThreadPool(targets.size());
+    try {
+      var results = targets.stream()
+          .map(target -> CompletableFuture.supplyAsync(
+              () -> applyOrFail(target, authorizationSource, options), executor))
+          .collect(Collectors.toList());
+      return results.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Log a result of a single bpms, failures are logged as errors.
+   *
+   * @param result result of {@link #apply} or {@link #applyToAll}.
+   */
+  public void logResult(ApplyResultDto result) {
+    if (result.getStatus() == ApplyStatus.FAILED) {
+      log.error("{}: {} in {} ms, error: {}", result.getBpmsUrl(), result.getStatus(),
+          result.getDurationMillis(), result.getError());
+    } else {
+      log.info("{}: {} in {} ms, deleted: {}, created: {}", result.getBpmsUrl(),
+          result.getStatus(), result.getDurationMillis(), result.getDeleted(),
+          result.getCreated());
+    }
+  }
+
+  private ApplyResultDto applyOrFail(BpmsTargetDto target, AuthorizationSource authorizationSource,
+      ApplyOptionsDto options) {
+    var startTime = System.nanoTime();
+    ApplyResultDto result;
+    try {
+      result = applyToTarget(target, authorizationSource, options, () -> {
+      });
+    } catch (RuntimeException e) {
+      log.error("Failed to apply authorizations to {}", target.getUrl(), e);
+      result = failedResult(target, startTime, e);
+    }
+    recordApply(result);
+    return result;
+  }
+
+  private ApplyResultDto failedResult(BpmsTargetDto target, long startTime, RuntimeException e) {
+    return ApplyResultDto.builder()
+        .bpmsUrl(target.getUrl())
+        .status(ApplyStatus.FAILED)
+        .durationMillis(millisSince(startTime))
+        .error(e.getMessage())
+        .build();
+  }
+
+  private void recordApply(ApplyResultDto result) {
+    var timer = meterRegistry.timer(APPLY_METRIC, "bpms", result.getBpmsUrl(), "status",
+        result.getStatus().name());
+    timer.record(result.getDurationMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private ApplyResultDto applyToTarget(BpmsTargetDto target,
+      AuthorizationSource authorizationSource, ApplyOptionsDto options, Runnable validation) {
+    var startTime = System.nanoTime();
+    var bpmsUrl = target.getUrl();
+    if (options.getMode() == ApplyMode.PLAN) {
+      // a plan is always made against current bpms state, so state file and journal are not used
+      validation.run();
+      var delta = authService.planAuthorizations(bpmsUrl, target.getToken(), authorizationSource);
+      return ApplyResultDto.builder()
+          .bpmsUrl(bpmsUrl)
+          .status(ApplyStatus.PLANNED)
+          .deleted(delta.getAuthorizationsToDelete().size())
+          .created(delta.getProcessDefinitionsToCreate().size()
+              + delta.getProcessInstanceRolesToCreate().size())
+          .durationMillis(millisSince(startTime))
+          .delta(delta)
+          .build();
+    }
+    var stateFile = options.getStateFile();
+
+    String fingerprint = null;
+    if (stateFile != null || options.getJournalDir() != null) {
+      // fingerprint calculation reads every config file, so it validates them as well
+      fingerprint = AuthorizationFingerprintUtil.fingerprint(bpmsUrl, authorizationSource);
+    }
+    if (stateFile != null && !options.isForce()
+        && applyStateStore.isApplied(stateFile, bpmsUrl, fingerprint)) {
+      log.info("Configuration is not changed since the last apply to {}, skipping", bpmsUrl);
+      return ApplyResultDto.builder()
+          .bpmsUrl(bpmsUrl)
+          .status(ApplyStatus.SKIPPED)
+          .durationMillis(millisSince(startTime))
+          .build();
+    }
+
+    ApplyResultDto result;
+    if (options.getMode() == ApplyMode.SYNC) {
+      if (options.getJournalDir() != null) {
+        // sync changes bpms, so interrupted recreate runs can't be resumed after it
+        ApplyJournal.discard(options.getJournalDir(), bpmsUrl);
+      }
+      result = authService.syncAuthorizations(bpmsUrl, target.getToken(), authorizationSource);
+    } else {
+      if (fingerprint == null) {
+        // config files are read while authorizations are created, so they are checked
+        // before existing authorizations are cleaned
+        validation.run();
+      }
+      try (var journal = openJournal(options.getJournalDir(), bpmsUrl, fingerprint)) {
+        var deletedCount = authService.cleanAuthorizations(bpmsUrl, target.getToken(), journal);
+        var createdCount = authService.createAuthorizations(bpmsUrl, target.getToken(),
+            authorizationSource, journal);
+        journal.complete();
+        result = ApplyResultDto.builder().deleted(deletedCount).created(createdCount).build();
+      }
+    }
+
+    if (stateFile != null) {
+      applyStateStore.markApplied(stateFile, bpmsUrl, fingerprint);
+    }
+    return result.toBuilder()
+        .bpmsUrl(bpmsUrl)
+        .status(ApplyStatus.APPLIED)
+        .durationMillis(millisSince(startTime))
+        .build();
+  }
+
+  private ApplyJournal openJournal(Path journalDir, String bpmsUrl, String fingerprint) {
+    if (journalDir == null) {
+      return ApplyJournal.disabled();
+    }
+    // request chunks are journaled as steps, so the same pairs sent in chunks of another size are
+    // another plan
+    return ApplyJournal.open(journalDir, bpmsUrl, fingerprint + "-" + batchProperties.getSize());
+  }
+
+  private long millisSince(long startTime) {
+    return (System.nanoTime() - startTime) / 1_000_000;
+  }
+}
@@ -16,8 +16,11 @@
 
 package com.epam.digital.data.platform.auth.generator.service;
 
-import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
-import java.util.List;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.delta.AuthorizationDeltaDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationPlan;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import com.epam.digital.data.platform.auth.generator.state.ApplyJournal;
 
 /**
  * Service that manages authorizations based on specified config files.
@@ -30,17 +33,77 @@ public interface AuthService {
    *
    * @param clientUrl bpms base url.
    * @param jwtToken  authorization token.
+   * @return number of deleted authorizations.
    */
-  void cleanAuthorizations(String clientUrl, String jwtToken);
+  default long cleanAuthorizations(String clientUrl, String jwtToken) {
+    return cleanAuthorizations(clientUrl, jwtToken, ApplyJournal.disabled());
+  }
+
+  /**
+   * Remove authorizations unless the journal says they were already removed by an interrupted run
+   * of the same plan.
+   *
+   * @param clientUrl bpms base url.
+   * @param jwtToken  authorization token.
+   * @param journal   journal of the plan.
+   * @return number of deleted authorizations.
+   */
+  long cleanAuthorizations(String clientUrl, String jwtToken, ApplyJournal journal);
 
   /**
    * Create authorizations for specific roles and process definition based on config files.
    * Process-definitions -> permissions = 'READ', 'CREATE_INSTANCE'.
    * Process-instances  -> permissions = 'CREATE', resource_id = '*'
    *
-   * @param clientUrl         bpms base url.
-   * @param jwtToken          authorization token.
-   * @param authConfigDtoList deserialized list of config yaml files.
+   * Pairs are read once into an {@link AuthorizationPlan}, request bodies are created from it chunk
+   * by chunk while they are sent.
+   *
+   * @param clientUrl           bpms base url.
+   * @param jwtToken            authorization token.
+   * @param authorizationSource pairs of process definitions and roles from config yaml files.
+   * @return number of created authorizations.
+   */
+  default long createAuthorizations(String clientUrl, String jwtToken,
+      AuthorizationSource authorizationSource) {
+    return createAuthorizations(clientUrl, jwtToken, authorizationSource, ApplyJournal.disabled());
+  }
+
+  /**
+   * Create authorizations skipping request chunks that the journal says were already created by an
+   * interrupted run of the same plan.
+   *
+   * @param clientUrl           bpms base url.
+   * @param jwtToken            authorization token.
+   * @param authorizationSource pairs of process definitions and roles from config yaml files.
+   * @param journal             journal of the plan.
+   * @return number of created authorizations.
+   */
+  long createAuthorizations(String clientUrl, String jwtToken,
+      AuthorizationSource authorizationSource, ApplyJournal journal);
+
+  /**
+   * Find the difference between current process-definition and process-instance authorizations
+   * in bpms and config files. Nothing is changed in bpms.
+   *
+   * @param clientUrl           bpms base url.
+   * @param jwtToken            authorization token.
+   * @param authorizationSource pairs of process definitions and roles from config yaml files.
+   * @return authorizations that sync would delete and create.
+   */
+  AuthorizationDeltaDto planAuthorizations(String clientUrl, String jwtToken,
+      AuthorizationSource authorizationSource);
+
+  /**
+   * Bring authorizations in line with config files by sending only the difference. Current
+   * process-definition and process-instance authorizations are read from bpms, those missing in
+   * bpms are created first and only then those missing in config files are removed, so
+   * authorizations kept in config files are never absent.
+   *
+   * @param clientUrl           bpms base url.
+   * @param jwtToken            authorization token.
+   * @param authorizationSource pairs of process definitions and roles from config yaml files.
+   * @return numbers of deleted and created authorizations.
    */
-  void createAuthorizations(String clientUrl, String jwtToken, List<AuthConfigDto> authConfigDtoList);
+  ApplyResultDto syncAuthorizations(String clientUrl, String jwtToken,
+      AuthorizationSource authorizationSource);
 }
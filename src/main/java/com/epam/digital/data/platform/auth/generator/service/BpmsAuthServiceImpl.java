@@ -17,14 +17,32 @@
 package com.epam.digital.data.platform.auth.generator.service;
 
 import com.epam.digital.data.platform.auth.generator.client.BpmsRestClient;
-import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.delta.AuthorizationDeltaDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.CountResultDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationPlan;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import com.epam.digital.data.platform.auth.generator.state.ApplyJournal;
+import com.epam.digital.data.platform.auth.generator.util.AuthorizationFingerprintUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -32,55 +50,250 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class BpmsAuthServiceImpl implements AuthService {
 
-  public static final int RETRY_DELAY_MILLIS = 20000;
+  public static final Set<String> PROCESS_DEFINITION_PERMISSIONS = Set.of("READ",
+      "CREATE_INSTANCE");
+  public static final Set<String> PROCESS_INSTANCE_PERMISSIONS = Set.of("CREATE");
+  public static final String ANY_RESOURCE_ID = "*";
+  public static final String CLEAN_STEP = "clean";
+  public static final String PROCESS_DEFINITION_STEP = "process-definition:";
+  public static final String PROCESS_INSTANCE_STEP = "process-instance";
+  public static final String PHASE_METRIC = "bpms.apply.phase";
+  public static final String CREATED_METRIC = "bpms.authorizations.created";
+  public static final String DELETED_METRIC = "bpms.authorizations.deleted";
 
   private final BpmsRestClient bpmsRestClient;
-
+  private final BatchProperties batchProperties;
+  private final Executor bpmsBatchExecutor;
+  private final MeterRegistry meterRegistry;
 
   @Override
-  @Retryable(backoff = @Backoff(delay = RETRY_DELAY_MILLIS))
-  public void createAuthorizations(String bpmsUrl, String token, List<AuthConfigDto> authConfigDtos) {
+  public long createAuthorizations(String bpmsUrl, String token,
+      AuthorizationSource authorizationSource, ApplyJournal journal) {
     log.info("Creating authorizations...");
-    var pdAuthCount = createProcessDefinitionAuthorizations(bpmsUrl, token, authConfigDtos);
-    var piAuthCount = createProcessInstanceAuthorizations(bpmsUrl, token, authConfigDtos);
-    log.info("Authorizations created: {}", Long.sum(piAuthCount, pdAuthCount));
+    var createdCount = recordPhase(bpmsUrl, "create", () -> {
+      var plan = AuthorizationPlan.from(authorizationSource);
+      var piAuthCount = journal.runOnceAsync(PROCESS_INSTANCE_STEP,
+          () -> bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, token,
+              plan.getRoles()).thenApply(CountResultDto::getCount));
+      return createConcurrently(piAuthCount, () -> {
+        var submitter = createProcessDefinitionSubmitter(bpmsUrl, token, journal);
+        var chunkSize = batchProperties.getSize();
+        for (var fromPair = 0; fromPair < plan.size(); fromPair += chunkSize) {
+          submitter.addChunk(plan.processDefinitionAuths(fromPair,
+              Math.min(fromPair + chunkSize, plan.size())));
+        }
+        return submitter.await();
+      });
+    });
+    meterRegistry.counter(CREATED_METRIC, "bpms", bpmsUrl).increment(createdCount);
+    log.info("Authorizations created: {}", createdCount);
+    return createdCount;
   }
 
   @Override
-  @Retryable(backoff = @Backoff(delay = RETRY_DELAY_MILLIS))
-  public void cleanAuthorizations(String bpmsUrl, String token) {
+  public long cleanAuthorizations(String bpmsUrl, String token, ApplyJournal journal) {
     log.info("Deleting authorizations...");
-    var response = bpmsRestClient.deleteAuthorizations(bpmsUrl, token);
-    log.info("Authorizations deleted: {}", response.getCount());
+    var deletedCount = recordPhase(bpmsUrl, "clean", () -> journal.runOnce(CLEAN_STEP,
+        () -> bpmsRestClient.deleteAuthorizations(bpmsUrl, token).getCount()));
+    meterRegistry.counter(DELETED_METRIC, "bpms", bpmsUrl).increment(deletedCount);
+    log.info("Authorizations deleted: {}", deletedCount);
+    return deletedCount;
+  }
+
+  @Override
+  public AuthorizationDeltaDto planAuthorizations(String bpmsUrl, String token,
+      AuthorizationSource authorizationSource) {
+    log.info("Planning authorizations...");
+    var delta = recordPhase(bpmsUrl, "delta",
+        () -> getAuthorizationDelta(bpmsUrl, token, authorizationSource));
+    log.info("Authorizations to delete: {}, process-definition authorizations to create: {}, "
+            + "process-instance authorizations to create: {}",
+        delta.getAuthorizationsToDelete().size(), delta.getProcessDefinitionsToCreate().size(),
+        delta.getProcessInstanceRolesToCreate().size());
+    return delta;
+  }
+
+  @Override
+  public ApplyResultDto syncAuthorizations(String bpmsUrl, String token,
+      AuthorizationSource authorizationSource) {
+    log.info("Synchronizing authorizations...");
+    var delta = recordPhase(bpmsUrl, "delta",
+        () -> getAuthorizationDelta(bpmsUrl, token, authorizationSource));
+
+    // missing authorizations are created before stale ones are deleted, so no role loses access
+    // to a process it keeps in config files, even for a moment
+    var createdCount = recordPhase(bpmsUrl, "create", () -> {
+      var piAuthCount = delta.getProcessInstanceRolesToCreate().isEmpty()
+          ? CompletableFuture.completedFuture(0L)
+          : bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, token,
+              delta.getProcessInstanceRolesToCreate()).thenApply(CountResultDto::getCount);
+      return createConcurrently(piAuthCount, () -> {
+        var submitter = createProcessDefinitionSubmitter(bpmsUrl, token,
+            ApplyJournal.disabled());
+        submitter.addAll(delta.getProcessDefinitionsToCreate());
+        return submitter.await();
+      });
+    });
+    meterRegistry.counter(CREATED_METRIC, "bpms", bpmsUrl).increment(createdCount);
+
+    var deletedCount = recordPhase(bpmsUrl, "delete",
+        () -> deleteConcurrently(bpmsUrl, token, delta.getAuthorizationsToDelete()));
+    meterRegistry.counter(DELETED_METRIC, "bpms", bpmsUrl).increment(deletedCount);
+    log.info("Authorizations created: {}, deleted: {}", createdCount, deletedCount);
+    return ApplyResultDto.builder().deleted(deletedCount).created(createdCount).build();
+  }
+
+  /**
+   * Pairs are tracked as a sorted array of packed dictionary indexes of the plan and a bit set of
+   * pairs found in bpms, so DTOs are created only for the pairs that are actually sent.
+   */
+  private AuthorizationDeltaDto getAuthorizationDelta(String bpmsUrl, String token,
+      AuthorizationSource authorizationSource) {
+    var plan = AuthorizationPlan.from(authorizationSource);
+    // pairs of a plan are distinct, so every key is found at its own position
+    var pairKeys = new long[plan.size()];
+    for (var pair = 0; pair < plan.size(); pair++) {
+      pairKeys[pair] = pairKey(plan, pair);
+    }
+    Arrays.sort(pairKeys);
+    var existingPairs = new BitSet(pairKeys.length);
+    var rolesToCreate = new BitSet(plan.getRoles().size());
+    rolesToCreate.set(0, plan.getRoles().size());
+    var authorizationsToDelete = new ArrayList<AuthResponseDto>();
+
+    try (var authorizations = bpmsRestClient.getAuthorizations(bpmsUrl, token,
+        AuthResourceType.PROCESS_DEFINITION)) {
+      authorizations
+          .filter(auth -> isManaged(auth, PROCESS_DEFINITION_PERMISSIONS))
+          .filter(auth -> !markExisting(plan, pairKeys, existingPairs, auth))
+          .forEach(authorizationsToDelete::add);
+    }
+
+    try (var authorizations = bpmsRestClient.getAuthorizations(bpmsUrl, token,
+        AuthResourceType.PROCESS_INSTANCE)) {
+      authorizations
+          .filter(auth -> ANY_RESOURCE_ID.equals(auth.getResourceId()))
+          .filter(auth -> isManaged(auth, PROCESS_INSTANCE_PERMISSIONS))
+          .filter(auth -> !removeRole(plan, rolesToCreate, auth))
+          .forEach(authorizationsToDelete::add);
+    }
+
+    var processDefinitionIds = plan.getProcessDefinitionIds();
+    var roles = plan.getRoles();
+    return AuthorizationDeltaDto.builder()
+        .processDefinitionsToCreate(IntStream.range(0, plan.size())
+            .filter(pair -> !existingPairs.get(Arrays.binarySearch(pairKeys, pairKey(plan, pair))))
+            .mapToObj(pair -> new ProcessDefinitionAuthDto(roles.get(plan.getRoleIndex(pair)),
+                processDefinitionIds.get(plan.getProcessDefinitionIndex(pair))))
+            .collect(Collectors.toList()))
+        .processInstanceRolesToCreate(rolesToCreate.stream()
+            .mapToObj(roles::get)
+            .collect(Collectors.toList()))
+        .authorizationsToDelete(authorizationsToDelete)
+        .build();
+  }
+
+  private boolean markExisting(AuthorizationPlan plan, long[] pairKeys, BitSet existingPairs,
+      AuthResponseDto auth) {
+    var processDefinitionIndex = plan.indexOfProcessDefinition(auth.getResourceId());
+    var roleIndex = plan.indexOfRole(auth.getGroupId());
+    if (processDefinitionIndex < 0 || roleIndex < 0) {
+      return false;
+    }
+    var pair = Arrays.binarySearch(pairKeys, pairKey(processDefinitionIndex, roleIndex));
+    if (pair < 0 || existingPairs.get(pair)) {
+      return false;
+    }
+    existingPairs.set(pair);
+    return true;
+  }
+
+  private boolean removeRole(AuthorizationPlan plan, BitSet rolesToCreate, AuthResponseDto auth) {
+    var roleIndex = plan.indexOfRole(auth.getGroupId());
+    if (roleIndex < 0 || !rolesToCreate.get(roleIndex)) {
+      return false;
+    }
+    rolesToCreate.clear(roleIndex);
+    return true;
+  }
+
+  private long pairKey(AuthorizationPlan plan, int pair) {
+    return pairKey(plan.getProcessDefinitionIndex(pair), plan.getRoleIndex(pair));
+  }
+
+  private long pairKey(int processDefinitionIndex, int roleIndex) {
+    return ((long) processDefinitionIndex << 32) | roleIndex;
+  }
+
+  private boolean isManaged(AuthResponseDto auth, Set<String> permissions) {
+    return auth.getGroupId() != null && auth.getPermissions() != null
+        && permissions.equals(auth.getPermissions());
+  }
+
+  /**
+   * Process-instance authorizations are created while process-definition chunks are sent, so the
+   * phase takes as long as the slowest of them instead of their sum.
+   *
+   * @param piAuthCount    future count of created process-instance authorizations.
+   * @param pdAuthCreation creation of process-definition authorizations.
+   * @return count of all created authorizations.
+   */
+  private long createConcurrently(CompletableFuture<Long> piAuthCount,
+      LongSupplier pdAuthCreation) {
+    long pdAuthCount;
+    try {
+      pdAuthCount = pdAuthCreation.getAsLong();
+    } catch (RuntimeException e) {
+      // the journal must not be closed while the process-instance request is still recorded
+      piAuthCount.handle((count, failure) -> count).join();
+      throw e;
+    }
+    try {
+      return Long.sum(pdAuthCount, piAuthCount.join());
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
   }
 
-  private long createProcessDefinitionAuthorizations(String bpmsUrl, String token,
-      List<AuthConfigDto> authList) {
-    var body = authList.stream()
-        .flatMap(ac -> ac.getAuthorization().getProcessDefinitions().stream())
-        .flatMap(pdAuthConfig -> pdAuthConfig.getRoles().stream().map(role -> {
-          var processDefinitionAuthDto = new ProcessDefinitionAuthDto();
-          processDefinitionAuthDto.setProcessDefinitionId(pdAuthConfig.getProcessDefinitionId());
-          processDefinitionAuthDto.setGroupId(role);
-          return processDefinitionAuthDto;
-        })).collect(Collectors.toList());
-
-    var response = bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, token, body);
-    return response.getCount();
+  /**
+   * Bpms deletes authorizations one by one, so they are split into up to {@code maxInFlight}
+   * chunks deleted at the same time.
+   */
+  private long deleteConcurrently(String bpmsUrl, String token,
+      List<AuthResponseDto> authorizations) {
+    if (authorizations.isEmpty()) {
+      return 0;
+    }
+    var maxInFlight = batchProperties.getMaxInFlight();
+    var chunkSize = Math.min(batchProperties.getSize(),
+        (authorizations.size() + maxInFlight - 1) / maxInFlight);
+    var submitter = new ChunkedBatchSubmitter<AuthResponseDto>(chunkSize, maxInFlight,
+        bpmsBatchExecutor, chunk -> {
+          chunk.forEach(auth -> bpmsRestClient.deleteAuthorization(bpmsUrl, token, auth.getId()));
+          return chunk.size();
+        });
+    submitter.addAll(authorizations);
+    return submitter.await();
   }
 
-  private long createProcessInstanceAuthorizations(String bpmsUrl, String token,
-      List<AuthConfigDto> authList) {
-    var uniqueRoles = getUniqueRoles(authList);
-    var response = bpmsRestClient.createProcessInstanceAuthorizations(bpmsUrl, token, uniqueRoles);
-    return response.getCount();
+  private <T> T recordPhase(String bpmsUrl, String phase, Supplier<T> action) {
+    return meterRegistry.timer(PHASE_METRIC, "bpms", bpmsUrl, "phase", phase).record(action);
   }
 
-  private List<String> getUniqueRoles(List<AuthConfigDto> authConfigDtoList) {
-    return authConfigDtoList.stream()
-        .flatMap(ac -> ac.getAuthorization().getProcessDefinitions().stream())
-        .flatMap(pdc -> pdc.getRoles().stream())
-        .distinct()
-        .collect(Collectors.toList());
+  /**
+   * Chunks are journaled by hash of their content, so a chunk confirmed by an interrupted run is
+   * skipped no matter of its position.
+   */
+  private ChunkedBatchSubmitter<ProcessDefinitionAuthDto> createProcessDefinitionSubmitter(
+      String bpmsUrl, String token, ApplyJournal journal) {
+    return new ChunkedBatchSubmitter<>(batchProperties.getSize(), batchProperties.getMaxInFlight(),
+        bpmsBatchExecutor,
+        chunk -> journal.runOnce(
+            PROCESS_DEFINITION_STEP + AuthorizationFingerprintUtil.fingerprint(chunk),
+            () -> bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, token, chunk)
+                .getCount()));
   }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToLongFunction;
+
+/**
+ * Groups items into chunks of configured size and sends every chunk on the given executor. No
+ * more than {@code maxInFlight} chunks are sent at the same time, {@link #add(Object)} blocks until
+ * one of them is finished. Counts returned for chunks are summed up by {@link #await()}.
+ *
+ * @param <T> type of chunk items.
+ */
+public class ChunkedBatchSubmitter<T> {
+
+  private final int chunkSize;
+  private final Semaphore inFlight;
+  private final Executor executor;
+  private final ToLongFunction<List<T>> sender;
+  private final List<CompletableFuture<Long>> submittedChunks = new ArrayList<>();
+  private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+  private List<T> chunk;
+
+  public ChunkedBatchSubmitter(int chunkSize, int maxInFlight, Executor executor,
+      ToLongFunction<List<T>> sender) {
+    if (chunkSize < 1 || maxInFlight < 1) {
+      throw new IllegalArgumentException("Chunk size and max in flight chunks must be positive");
+    }
+    this.chunkSize = chunkSize;
+    this.inFlight = new Semaphore(maxInFlight);
+    this.executor = executor;
+    this.sender = sender;
+    this.chunk = new ArrayList<>(chunkSize);
+  }
+
+  public void add(T item) {
+    chunk.add(item);
+    if (chunk.size() == chunkSize) {
+      submit();
+    }
+  }
+
+  public void addAll(Collection<T> items) {
+    items.forEach(this::add);
+  }
+
+  /**
+   * Send a ready chunk as is, regardless of configured chunk size and of items added before. Lets
+   * the caller pass a lazy view whose items are created only while the chunk is being sent.
+   *
+   * @param readyChunk chunk to send.
+   */
+  public void addChunk(List<T> readyChunk) {
+    acquire();
+    if (failure.get() != null) {
+      inFlight.release();
+      throw failure.get();
+    }
+    try {
+      submittedChunks.add(CompletableFuture.supplyAsync(() -> send(readyChunk), executor));
+    } catch (RuntimeException e) {
+      inFlight.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Send the last incomplete chunk and wait for all chunks.
+   *
+   * @return sum of counts returned for chunks.
+   */
+  public long await() {
+    if (!chunk.isEmpty()) {
+      submit();
+    }
+    try {
+      CompletableFuture.allOf(submittedChunks.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      submittedChunks.forEach(future -> future.cancel(false));
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    return submittedChunks.stream().mapToLong(CompletableFuture::join).sum();
+  }
+
+  private void submit() {
+    var submittedChunk = chunk;
+    chunk = new ArrayList<>(chunkSize);
+    addChunk(submittedChunk);
+  }
+
+  private long send(List<T> submittedChunk) {
+    try {
+      return sender.applyAsLong(submittedChunk);
+    } catch (RuntimeException e) {
+      failure.compareAndSet(null, e);
+      throw e;
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  private void acquire() {
+    try {
+      inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for chunk submission", e);
+    }
+  }
+}
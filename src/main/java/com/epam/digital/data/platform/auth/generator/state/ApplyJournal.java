@@ -0,0 +1,247 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.state;
+
+import com.epam.digital.data.platform.auth.generator.util.AuthorizationFingerprintUtil;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only journal of apply steps confirmed by bpms. Every line holds a step id, the count
+ * returned for it and CRC32 of both. A run restarted with the same plan skips steps found in the
+ * journal and reuses their counts. Journal is deleted once the whole plan is applied, journals of
+ * other plans of the same bpms are deleted as soon as another plan is started.
+ */
+@Slf4j
+public class ApplyJournal implements Closeable {
+
+  private static final String JOURNAL_EXTENSION = ".journal";
+  private static final String SEPARATOR = " ";
+
+  private final Path journalFile;
+  private final BufferedWriter writer;
+  private final Map<String, Long> completedSteps;
+
+  private ApplyJournal(Path journalFile, BufferedWriter writer, Map<String, Long> completedSteps) {
+    this.journalFile = journalFile;
+    this.writer = writer;
+    this.completedSteps = completedSteps;
+  }
+
+  /**
+   * Open journal of the plan, steps completed by previous runs are loaded. Journals of other plans
+   * of the same bpms are deleted, since the new plan changes bpms and their steps can't be resumed
+   * afterwards.
+   *
+   * @param directory directory of journals.
+   * @param bpmsUrl   bpms base url.
+   * @param planId    id of the plan that defines its steps, e.g. fingerprint of the plan.
+   * @return opened journal.
+   */
+  public static ApplyJournal open(Path directory, String bpmsUrl, String planId) {
+    var journalFile = directory.resolve(journalPrefix(bpmsUrl) + planId + JOURNAL_EXTENSION);
+    try {
+      Files.createDirectories(directory);
+      deleteJournals(directory, bpmsUrl, journalFile);
+      var completedSteps = load(journalFile);
+      if (!completedSteps.isEmpty()) {
+        log.info("Resuming interrupted apply, steps already completed: {}", completedSteps.size());
+      }
+      var writer = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      if (endsWithPartialLine(journalFile)) {
+        writer.newLine();
+      }
+      return new ApplyJournal(journalFile, writer, completedSteps);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't open journal: %s", journalFile), e);
+    }
+  }
+
+  /**
+   * Delete journals of all plans of the bpms, e.g. before bpms is changed without a journal.
+   *
+   * @param directory directory of journals.
+   * @param bpmsUrl   bpms base url.
+   */
+  public static void discard(Path directory, String bpmsUrl) {
+    try {
+      deleteJournals(directory, bpmsUrl, null);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          String.format("Couldn't delete journals of %s in %s", bpmsUrl, directory), e);
+    }
+  }
+
+  /**
+   * Journal that doesn't store anything, every step is performed.
+   */
+  public static ApplyJournal disabled() {
+    return new ApplyJournal(null, null, new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Perform the step unless it is already completed.
+   *
+   * @param step   step id.
+   * @param action step action that returns count of affected authorizations.
+   * @return count returned by the action or recorded for the completed step.
+   */
+  public long runOnce(String step, LongSupplier action) {
+    var recordedCount = completedSteps.get(step);
+    if (recordedCount != null) {
+      log.debug("Step {} is already completed", step);
+      return recordedCount;
+    }
+    var count = action.getAsLong();
+    markCompleted(step, count);
+    return count;
+  }
+
+  /**
+   * Start the step unless it is already completed. The step is recorded when its action is
+   * completed successfully.
+   *
+   * @param step   step id.
+   * @param action step action that starts the step and returns its future count of affected
+   *               authorizations.
+   * @return future count returned by the action or recorded for the completed step.
+   */
+  public CompletableFuture<Long> runOnceAsync(String step,
+      Supplier<CompletableFuture<Long>> action) {
+    var recordedCount = completedSteps.get(step);
+    if (recordedCount != null) {
+      log.debug("Step {} is already completed", step);
+      return CompletableFuture.completedFuture(recordedCount);
+    }
+    return action.get().thenApply(count -> {
+      markCompleted(step, count);
+      return count;
+    });
+  }
+
+  /**
+   * Remove the journal after the whole plan is applied.
+   */
+  public void complete() {
+    if (journalFile == null) {
+      return;
+    }
+    close();
+    try {
+      Files.deleteIfExists(journalFile);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't delete journal: %s", journalFile), e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't close journal: %s", journalFile), e);
+    }
+  }
+
+  private synchronized void markCompleted(String step, long count) {
+    completedSteps.put(step, count);
+    if (writer == null) {
+      return;
+    }
+    try {
+      var line = step + SEPARATOR + count;
+      writer.write(line + SEPARATOR + checksum(line));
+      writer.newLine();
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't write journal: %s", journalFile), e);
+    }
+  }
+
+  private static void deleteJournals(Path directory, String bpmsUrl, Path keptJournal)
+      throws IOException {
+    if (Files.notExists(directory)) {
+      return;
+    }
+    var glob = journalPrefix(bpmsUrl) + "*" + JOURNAL_EXTENSION;
+    try (var journals = Files.newDirectoryStream(directory, glob)) {
+      for (var journal : journals) {
+        if (!journal.equals(keptJournal)) {
+          log.info("Deleting journal of another plan {}", journal);
+          Files.deleteIfExists(journal);
+        }
+      }
+    }
+  }
+
+  private static String journalPrefix(String bpmsUrl) {
+    return AuthorizationFingerprintUtil.fingerprint(bpmsUrl) + "-";
+  }
+
+  private static String checksum(String line) {
+    var crc = new CRC32();
+    crc.update(line.getBytes(StandardCharsets.UTF_8));
+    return Long.toHexString(crc.getValue());
+  }
+
+  private static boolean endsWithPartialLine(Path journalFile) throws IOException {
+    try (var channel = Files.newByteChannel(journalFile)) {
+      if (channel.size() == 0) {
+        return false;
+      }
+      var lastByte = ByteBuffer.allocate(1);
+      channel.position(channel.size() - 1).read(lastByte);
+      return lastByte.get(0) != '\n';
+    }
+  }
+
+  /**
+   * Lines that can't be parsed or don't match their checksum, e.g. the last line written when the
+   * process was killed, are ignored, so their steps are performed again.
+   */
+  private static Map<String, Long> load(Path journalFile) throws IOException {
+    var completedSteps = new ConcurrentHashMap<String, Long>();
+    if (Files.notExists(journalFile)) {
+      return completedSteps;
+    }
+    try (var lines = Files.lines(journalFile, StandardCharsets.UTF_8)) {
+      lines.map(line -> line.split(SEPARATOR))
+          .filter(parts -> parts.length == 3 && parts[1].matches("\\d+")
+              && checksum(parts[0] + SEPARATOR + parts[1]).equals(parts[2]))
+          .forEach(parts -> completedSteps.put(parts[0], Long.parseLong(parts[1])));
+    }
+    return completedSteps;
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.state;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps fingerprints of configurations successfully applied to bpms in a local properties file,
+ * one entry per bpms url.
+ */
+@Slf4j
+@Component
+public class ApplyStateStore {
+
+  /**
+   * Check whether configuration with the fingerprint was the last one applied to bpms.
+   *
+   * @param stateFile   state file, missing file means nothing was applied.
+   * @param bpmsUrl     bpms base url.
+   * @param fingerprint fingerprint of the configuration.
+   * @return true if the same configuration was applied.
+   */
+  public boolean isApplied(Path stateFile, String bpmsUrl, String fingerprint) {
+    return fingerprint.equals(load(stateFile).getProperty(bpmsUrl));
+  }
+
+  /**
+   * Store fingerprint of configuration applied to bpms. The file is replaced atomically, so an
+   * interrupted write never leaves a partially written state.
+   *
+   * @param stateFile   state file.
+   * @param bpmsUrl     bpms base url.
+   * @param fingerprint fingerprint of the configuration.
+   */
+  public synchronized void markApplied(Path stateFile, String bpmsUrl, String fingerprint) {
+    var state = load(stateFile);
+    state.setProperty(bpmsUrl, fingerprint);
+    try {
+      var directory = stateFile.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+      var tempFile = Files.createTempFile(directory, stateFile.getFileName().toString(), ".tmp");
+      try (var writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        state.store(writer, "camunda-auth-cli applied configurations");
+      }
+      Files.move(tempFile, stateFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't write state file: %s", stateFile), e);
+    }
+    log.debug("Applied configuration {} stored for {}", fingerprint, bpmsUrl);
+  }
+
+  private Properties load(Path stateFile) {
+    var state = new Properties();
+    if (Files.notExists(stateFile)) {
+      return state;
+    }
+    try (var reader = Files.newBufferedReader(stateFile, StandardCharsets.UTF_8)) {
+      state.load(reader);
+    } catch (IOException e) {
+      throw new UncheckedIOException(String.format("Couldn't read state file: %s", stateFile), e);
+    }
+    return state;
+  }
+}
@@ -16,7 +16,10 @@
 
 package com.epam.digital.data.platform.auth.generator.util;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.springframework.boot.ApplicationArguments;
 
 public final class ArgsParserUtil {
@@ -27,4 +30,28 @@ public final class ArgsParserUtil {
     return Optional.ofNullable(param).map(p -> p.get(0))
         .orElseThrow(() -> new IllegalArgumentException(exceptionMsg));
   }
+
+  public static List<String> getListParamOrThrow(String key, String exceptionMsg,
+      ApplicationArguments args) {
+    var param = args.getOptionValues(key);
+    return Optional.ofNullable(param).filter(p -> !p.isEmpty())
+        .map(p -> p.stream().flatMap(value -> Stream.of(value.split(",")))
+            .collect(Collectors.toList()))
+        .orElseThrow(() -> new IllegalArgumentException(exceptionMsg));
+  }
+
+  public static String getSingleParamOrDefault(String key, String defaultValue,
+      ApplicationArguments args) {
+    var param = args.getOptionValues(key);
+    return Optional.ofNullable(param).filter(p -> !p.isEmpty()).map(p -> p.get(0))
+        .orElse(defaultValue);
+  }
+
+  public static boolean isFlagSet(String key, ApplicationArguments args) {
+    if (!args.containsOption(key)) {
+      return false;
+    }
+    var param = args.getOptionValues(key);
+    return param == null || param.isEmpty() || Boolean.parseBoolean(param.get(0));
+  }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.util;
+
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.TreeSet;
+
+public final class AuthorizationFingerprintUtil {
+
+  private static final String ALGORITHM = "SHA-256";
+  private static final char SEPARATOR = '\u0000';
+
+  /**
+   * Calculate hash of bpms url and distinct (process definition id, role) pairs sorted by
+   * process definition id and role, so order of config files and duplicated pairs don't change
+   * the result.
+   *
+   * @param bpmsUrl             bpms base url.
+   * @param authorizationSource pairs of process definitions and roles.
+   * @return hex encoded SHA-256 hash.
+   */
+  public static String fingerprint(String bpmsUrl, AuthorizationSource authorizationSource) {
+    var pairs = new TreeSet<String>();
+    authorizationSource.forEachPair(
+        (processDefinitionId, role) -> pairs.add(processDefinitionId + SEPARATOR + role));
+
+    var digest = getDigest();
+    digest.update(bpmsUrl.getBytes(StandardCharsets.UTF_8));
+    for (var pair : pairs) {
+      digest.update((byte) '\n');
+      digest.update(pair.getBytes(StandardCharsets.UTF_8));
+    }
+    return toHex(digest.digest());
+  }
+
+  /**
+   * Calculate hash of bpms url, e.g. to name local files kept for the bpms.
+   *
+   * @param bpmsUrl bpms base url.
+   * @return hex encoded SHA-256 hash.
+   */
+  public static String fingerprint(String bpmsUrl) {
+    return toHex(getDigest().digest(bpmsUrl.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Calculate hash of process definition authorizations in the given order.
+   *
+   * @param authorizations process definition authorizations, e.g. a single request chunk.
+   * @return hex encoded SHA-256 hash.
+   */
+  public static String fingerprint(List<ProcessDefinitionAuthDto> authorizations) {
+    var digest = getDigest();
+    for (var authorization : authorizations) {
+      digest.update((authorization.getProcessDefinitionId() + SEPARATOR + authorization.getGroupId()
+          + '\n').getBytes(StandardCharsets.UTF_8));
+    }
+    return toHex(digest.digest());
+  }
+
+  private static MessageDigest getDigest() {
+    try {
+      return MessageDigest.getInstance(ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(String.format("%s is not supported", ALGORITHM), e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    var hex = new StringBuilder(bytes.length * 2);
+    for (var b : bytes) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+}
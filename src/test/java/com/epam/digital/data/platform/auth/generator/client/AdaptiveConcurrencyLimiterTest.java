@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.auth.generator.client.AdaptiveConcurrencyLimiter.Outcome;
+import com.epam.digital.data.platform.auth.generator.client.AdaptiveConcurrencyLimiter.Permit;
+import com.epam.digital.data.platform.auth.generator.config.properties.ConcurrencyProperties;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @Test
+  void shouldIncreaseLimitWhileLatencyIsStable() {
+    var limiter = new AdaptiveConcurrencyLimiter(properties(2, 8));
+
+    for (var round = 0; round < 100; round++) {
+      releaseAll(limiter, (int) limiter.getLimit(), Outcome.SUCCESS, LATENCY);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(8);
+  }
+
+  @Test
+  void shouldDecreaseLimitOnceForBurstOfThrottledRequests() {
+    var limiter = new AdaptiveConcurrencyLimiter(properties(8, 16));
+
+    releaseAll(limiter, 8, Outcome.OVERLOAD, LATENCY);
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldDecreaseLimitWhenLatencyGrows() {
+    var limiter = new AdaptiveConcurrencyLimiter(properties(8, 16));
+    releaseAll(limiter, 1, Outcome.SUCCESS, LATENCY);
+
+    for (var i = 0; i < 10 && limiter.getLimit() >= 8; i++) {
+      releaseAll(limiter, 1, Outcome.SUCCESS, LATENCY * 5);
+    }
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldNotChangeLimitOnIgnoredFailure() {
+    var limiter = new AdaptiveConcurrencyLimiter(properties(4, 16));
+
+    releaseAll(limiter, 4, Outcome.IGNORED, LATENCY);
+
+    assertThat(limiter.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldWaitForPermitAboveLimit() throws Exception {
+    var limiter = new AdaptiveConcurrencyLimiter(properties(1, 1));
+    var permit = limiter.acquire("get");
+
+    var waitingPermit = CompletableFuture.supplyAsync(() -> limiter.acquire("get"));
+
+    try {
+      waitingPermit.get(100, TimeUnit.MILLISECONDS);
+      throw new AssertionError("Permit above limit is acquired");
+    } catch (TimeoutException e) {
+      limiter.release(permit, Outcome.SUCCESS, LATENCY);
+    }
+    assertThat(waitingPermit.get(1, TimeUnit.SECONDS)).isNotNull();
+  }
+
+  private void releaseAll(AdaptiveConcurrencyLimiter limiter, int count, Outcome outcome,
+      long latencyNanos) {
+    var permits = new ArrayList<Permit>();
+    for (var i = 0; i < count; i++) {
+      permits.add(limiter.acquire("process-definition-create"));
+    }
+    permits.forEach(permit -> limiter.release(permit, outcome, latencyNanos));
+  }
+
+  private ConcurrencyProperties properties(int initialLimit, int maxLimit) {
+    var properties = new ConcurrencyProperties();
+    properties.setInitialLimit(initialLimit);
+    properties.setMaxLimit(maxLimit);
+    return properties;
+  }
+}
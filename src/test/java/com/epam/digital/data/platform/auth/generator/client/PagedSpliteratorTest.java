@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Test;
+
+class PagedSpliteratorTest {
+
+  @Test
+  void shouldPassElementsInPagesOrder() {
+    var executor = Executors.newFixedThreadPool(4);
+    var spliterator = new PagedSpliterator<Integer>(10, 4, page -> {
+      try {
+        // later pages are loaded faster than earlier ones
+        Thread.sleep(20L - page * 5L);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return IntStream.range(page * 3, Math.min(page * 3 + 3, 10)).boxed()
+          .collect(Collectors.toList());
+    }, 4, executor);
+
+    var elements = StreamSupport.stream(spliterator, false).collect(Collectors.toList());
+    executor.shutdown();
+
+    assertThat(elements).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  void shouldNotExceedMaxInFlightPages() {
+    var executor = Executors.newFixedThreadPool(8);
+    var inFlight = new AtomicInteger();
+    var maxObservedInFlight = new AtomicInteger();
+    var spliterator = new PagedSpliterator<Integer>(20, 20, page -> {
+      maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.decrementAndGet();
+      return List.of(page);
+    }, 2, executor);
+
+    var count = StreamSupport.stream(spliterator, false).count();
+    executor.shutdown();
+
+    assertThat(count).isEqualTo(20);
+    assertThat(maxObservedInFlight.get()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void shouldRethrowPageFailure() {
+    var spliterator = new PagedSpliterator<Integer>(4, 2, page -> {
+      if (page == 1) {
+        throw new IllegalStateException("bpms is unavailable");
+      }
+      return List.of(page, page);
+    }, 1, Runnable::run);
+    var stream = StreamSupport.stream(spliterator, false);
+
+    var exception = assertThrows(IllegalStateException.class, stream::count);
+
+    assertThat(exception.getMessage()).isEqualTo("bpms is unavailable");
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.epam.digital.data.platform.auth.generator.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GeneralConfigTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withUserConfiguration(GeneralConfig.class)
+      .withPropertyValues("bpms.http.max-connections=7", "bpms.http.max-connections-per-route=3",
+          "bpms.http.connect-timeout=2s", "bpms.http.read-timeout=5s",
+          "bpms.http.connection-request-timeout=4s");
+
+  @Test
+  void shouldCreatePooledRequestFactory() {
+    contextRunner.withPropertyValues("bpms.http.type=pooled").run(context -> {
+      var requestFactory = context.getBean(ClientHttpRequestFactory.class);
+
+      assertThat(requestFactory).isInstanceOf(HttpComponentsClientHttpRequestFactory.class);
+      var httpClient = ((HttpComponentsClientHttpRequestFactory) requestFactory).getHttpClient();
+      var connectionManager = (PoolingHttpClientConnectionManager) ReflectionTestUtils.getField(
+          httpClient, "connManager");
+      assertThat(connectionManager.getMaxTotal()).isEqualTo(7);
+      assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(3);
+      RequestConfig requestConfig = ((Configurable) httpClient).getConfig();
+      assertThat(requestConfig.getConnectTimeout()).isEqualTo(2000);
+      assertThat(requestConfig.getSocketTimeout()).isEqualTo(5000);
+      assertThat(requestConfig.getConnectionRequestTimeout()).isEqualTo(4000);
+      assertThat(ReflectionTestUtils.getField(requestFactory, "bufferRequestBody"))
+          .isEqualTo(false);
+    });
+  }
+
+  @Test
+  void shouldCreateSimpleRequestFactory() {
+    contextRunner.withPropertyValues("bpms.http.type=simple").run(context -> {
+      var requestFactory = context.getBean(ClientHttpRequestFactory.class);
+
+      assertThat(requestFactory).isInstanceOf(SimpleClientHttpRequestFactory.class);
+      assertThat(ReflectionTestUtils.getField(requestFactory, "connectTimeout")).isEqualTo(2000);
+      assertThat(ReflectionTestUtils.getField(requestFactory, "readTimeout")).isEqualTo(5000);
+      assertThat(ReflectionTestUtils.getField(requestFactory, "bufferRequestBody"))
+          .isEqualTo(false);
+    });
+  }
+}
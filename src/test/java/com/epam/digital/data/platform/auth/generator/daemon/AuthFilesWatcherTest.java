@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.daemon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.auth.generator.BaseTest;
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.WatchProperties;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyOptionsDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyRequestDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.BpmsTargetDto;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyMode;
+import com.epam.digital.data.platform.auth.generator.enums.ApplyStatus;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigCache;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigStreamReader;
+import com.epam.digital.data.platform.auth.generator.reader.AuthFilesResolver;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationPlan;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+class AuthFilesWatcherTest extends BaseTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Mock
+  private ApplyService applyService;
+
+  private AuthFilesWatcher watcher;
+  private Thread watchingThread;
+
+  @BeforeEach
+  void init() {
+    var watchProperties = new WatchProperties();
+    watchProperties.setDebounce(Duration.ofMillis(200));
+    watcher = new AuthFilesWatcher(applyService, new AuthFilesResolver(new ParsingProperties()),
+        new AuthConfigCache(new AuthConfigStreamReader(new ObjectMapper(new YAMLFactory()),
+            new ParsingProperties())), watchProperties);
+    when(applyService.applyToAll(any(), any(AuthorizationPlan.class), any())).thenReturn(
+        List.of(ApplyResultDto.builder().bpmsUrl(bpmsUrl).status(ApplyStatus.APPLIED).build()));
+  }
+
+  @AfterEach
+  void stop() throws InterruptedException {
+    watchingThread.interrupt();
+    watchingThread.join(5000);
+    assertThat(watchingThread.isAlive()).isFalse();
+  }
+
+  @Test
+  void shouldSyncChangedConfigFiles() throws IOException {
+    var officerConfig = writeConfig("officer.yml", "process-1");
+    var citizenConfig = writeConfig("citizen.yml", "process-2");
+    startWatching(officerConfig, citizenConfig);
+    var planCaptor = ArgumentCaptor.forClass(AuthorizationPlan.class);
+    verify(applyService, timeout(5000)).applyToAll(any(), planCaptor.capture(),
+        eq(ApplyOptionsDto.builder().mode(ApplyMode.SYNC).build()));
+    assertThat(planCaptor.getValue().getProcessDefinitionIds())
+        .containsExactly("process-1", "process-2");
+
+    writeConfig("officer.yml", "process-3");
+    writeConfig("citizen.yml", "process-4");
+
+    // both changes are applied at once
+    verify(applyService, after(3000).times(2)).applyToAll(any(), planCaptor.capture(), any());
+    assertThat(planCaptor.getValue().getProcessDefinitionIds())
+        .containsExactly("process-3", "process-4");
+  }
+
+  @Test
+  void shouldKeepWatchingWhenConfigFileIsInvalid() throws IOException {
+    var officerConfig = writeConfig("officer.yml", "process-1");
+    startWatching(officerConfig);
+    verify(applyService, timeout(5000)).applyToAll(any(), any(AuthorizationPlan.class), any());
+
+    Files.writeString(officerConfig, "authorization: [");
+    writeConfig("unwatched.yml", "process-2");
+    verify(applyService, after(1500).times(1)).applyToAll(any(), any(AuthorizationPlan.class),
+        any());
+
+    writeConfig("officer.yml", "process-3");
+    var planCaptor = ArgumentCaptor.forClass(AuthorizationPlan.class);
+    verify(applyService, timeout(5000).times(2)).applyToAll(any(), planCaptor.capture(), any());
+    assertThat(planCaptor.getValue().getProcessDefinitionIds()).containsExactly("process-3");
+  }
+
+  @Test
+  void shouldApplyConfigFilesAddedToAndRemovedFromDirectory() throws IOException {
+    var configDirectory = Files.createDirectory(tempDir.resolve("configs"));
+    writeConfig("configs/officer.yml", "process-1");
+    startWatching(configDirectory);
+    var planCaptor = ArgumentCaptor.forClass(AuthorizationPlan.class);
+    verify(applyService, timeout(5000)).applyToAll(any(), planCaptor.capture(), any());
+    assertThat(planCaptor.getValue().getProcessDefinitionIds()).containsExactly("process-1");
+
+    Files.createDirectory(configDirectory.resolve("citizen"));
+    var citizenConfig = writeConfig("configs/citizen/citizen.yml", "process-2");
+    verify(applyService, timeout(5000).times(2)).applyToAll(any(), planCaptor.capture(), any());
+    assertThat(planCaptor.getValue().getProcessDefinitionIds())
+        .containsExactly("process-2", "process-1");
+
+    // the subdirectory is created after the start, so it has to be registered on the change
+    Files.delete(citizenConfig);
+    verify(applyService, timeout(5000).times(3)).applyToAll(any(), planCaptor.capture(), any());
+    assertThat(planCaptor.getValue().getProcessDefinitionIds()).containsExactly("process-1");
+  }
+
+  private void startWatching(Path... configs) {
+    var authFileEntries = Stream.of(configs).map(Path::toString).collect(Collectors.joining(","));
+    var request = ApplyRequestDto.builder()
+        .targets(List.of(new BpmsTargetDto(bpmsUrl, jwtToken)))
+        .authFileEntries(authFileEntries)
+        .authFiles(new AuthFilesResolver(new ParsingProperties()).resolve(authFileEntries))
+        .options(ApplyOptionsDto.builder().build())
+        .build();
+    watchingThread = new Thread(() -> {
+      try {
+        watcher.watch(request);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    watchingThread.start();
+  }
+
+  private Path writeConfig(String name, String processDefinitionId) throws IOException {
+    return Files.writeString(tempDir.resolve(name), String.format(
+        "authorization:\n"
+            + "  realm: 'officer'\n"
+            + "  process_definitions:\n"
+            + "    - process_definition_id: '%s'\n"
+            + "      roles:\n"
+            + "        - officer\n", processDefinitionId));
+  }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.daemon;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.epam.digital.data.platform.auth.generator.BaseTest;
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.dto.apply.DaemonSettingsDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigCache;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigStreamReader;
+import com.epam.digital.data.platform.auth.generator.reader.AuthFilesResolver;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSnapshotStore;
+import com.epam.digital.data.platform.auth.generator.runner.ApplyRequestParser;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
+import com.epam.digital.data.platform.auth.generator.service.AuthService;
+import com.epam.digital.data.platform.auth.generator.state.ApplyStateStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+class DaemonServerTest extends BaseTest {
+
+  private static final String SECRET = "daemon-secret";
+
+  @Mock
+  private AuthService authService;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+  private DaemonServer daemonServer;
+  private URI applyUri;
+
+  @BeforeEach
+  void init() throws IOException, URISyntaxException {
+    var reader = new AuthConfigStreamReader(new ObjectMapper(new YAMLFactory()),
+        new ParsingProperties());
+    daemonServer = new DaemonServer(
+        new ApplyService(authService, reader, new ApplyStateStore(), new BatchProperties(),
+            new SimpleMeterRegistry()),
+        new ApplyRequestParser(new AuthFilesResolver(new ParsingProperties())),
+        new AuthConfigCache(reader), new AuthorizationSnapshotStore(reader), objectMapper);
+    var address = daemonServer.start(DaemonSettingsDto.builder()
+        .port(0)
+        .secret(SECRET)
+        .bpmsUrls(List.of(bpmsUrl))
+        .tokenFiles(List.of(Path.of(getPath("/testToken.txt"))))
+        .build());
+    applyUri = URI.create(
+        String.format("http://%s:%d/apply", address.getHostString(), address.getPort()));
+  }
+
+  @AfterEach
+  void stop() {
+    daemonServer.destroy();
+  }
+
+  @Test
+  void shouldApplyRequestArgumentsAndRespondWithResults() throws Exception {
+    var response = post(objectMapper.writeValueAsString(new String[]{
+        "--AUTH_FILES=" + getPath("/test-config1.yml")}));
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    var results = objectMapper.readTree(response.body());
+    assertThat(results.get(0).get("bpmsUrl").asText()).isEqualTo(bpmsUrl);
+    assertThat(results.get(0).get("status").asText()).isEqualTo("APPLIED");
+    verify(authService).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(bpmsUrl), eq("token"), any(), any());
+  }
+
+  @Test
+  void shouldRespondWithFailedResults() throws Exception {
+    when(authService.cleanAuthorizations(anyString(), anyString(), any()))
+        .thenThrow(new IllegalStateException("Bpms is not available"));
+
+    var response = post(objectMapper.writeValueAsString(new String[]{
+        "--BPMS_URL=" + bpmsUrl, "--AUTH_FILES=" + getPath("/test-config1.yml")}));
+
+    assertThat(response.statusCode()).isEqualTo(500);
+    var results = objectMapper.readTree(response.body());
+    assertThat(results.get(0).get("status").asText()).isEqualTo("FAILED");
+    assertThat(results.get(0).get("error").asText()).isEqualTo("Bpms is not available");
+  }
+
+  @Test
+  void shouldRejectInvalidArguments() throws Exception {
+    var response = post(objectMapper.writeValueAsString(new String[]{"--BPMS_URL=" + bpmsUrl}));
+
+    assertThat(response.statusCode()).isEqualTo(400);
+    assertThat(objectMapper.readTree(response.body()).get("error").asText())
+        .isEqualTo("Config files are not found");
+    verify(authService, never()).cleanAuthorizations(anyString(), anyString(), any());
+  }
+
+  @Test
+  void shouldRejectTokenFileOfRequest() throws Exception {
+    var response = post(objectMapper.writeValueAsString(new String[]{
+        "--BPMS_TOKEN=" + getPath("/testToken.txt"),
+        "--AUTH_FILES=" + getPath("/test-config1.yml")}));
+
+    assertThat(response.statusCode()).isEqualTo(400);
+    assertThat(objectMapper.readTree(response.body()).get("error").asText())
+        .isEqualTo("BPMS_TOKEN is set on daemon start and can't be set by a request");
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldRejectBpmsThatIsNotConfiguredOnStart() throws Exception {
+    var response = post(objectMapper.writeValueAsString(new String[]{
+        "--BPMS_URL=http://other-bpms:8080", "--AUTH_FILES=" + getPath("/test-config1.yml")}));
+
+    assertThat(response.statusCode()).isEqualTo(400);
+    assertThat(objectMapper.readTree(response.body()).get("error").asText())
+        .isEqualTo("Bpms url http://other-bpms:8080 is not configured on daemon start");
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldRejectRequestWithoutSecret() throws Exception {
+    var response = httpClient.send(HttpRequest.newBuilder(applyUri)
+        .POST(BodyPublishers.ofString(objectMapper.writeValueAsString(new String[]{
+            "--AUTH_FILES=" + getPath("/test-config1.yml")})))
+        .build(), BodyHandlers.ofString());
+
+    assertThat(response.statusCode()).isEqualTo(401);
+    assertThat(response.headers().firstValue("WWW-Authenticate")).hasValue("Bearer");
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldRejectRequestWithWrongSecret() throws Exception {
+    var response = httpClient.send(HttpRequest.newBuilder(applyUri)
+        .header("Authorization", "Bearer wrong-secret")
+        .POST(BodyPublishers.ofString(objectMapper.writeValueAsString(new String[]{
+            "--AUTH_FILES=" + getPath("/test-config1.yml")})))
+        .build(), BodyHandlers.ofString());
+
+    assertThat(response.statusCode()).isEqualTo(401);
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldRejectRequestThatIsNotArgumentsArray() throws Exception {
+    var response = post("{\"BPMS_URL\": \"http://localhost:8081\"}");
+
+    assertThat(response.statusCode()).isEqualTo(400);
+  }
+
+  private java.net.http.HttpResponse<String> post(String body) throws Exception {
+    return httpClient.send(HttpRequest.newBuilder(applyUri)
+        .header("Authorization", "Bearer " + SECRET)
+        .POST(BodyPublishers.ofString(body))
+        .build(), BodyHandlers.ofString());
+  }
+
+  private String getPath(String resource) throws URISyntaxException {
+    return Paths.get(DaemonServerTest.class.getResource(resource).toURI()).toString();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.MetricsProperties;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PrometheusTextfileExporterTest {
+
+  private final PrometheusMeterRegistry meterRegistry = new PrometheusMeterRegistry(
+      PrometheusConfig.DEFAULT);
+  private final MetricsProperties metricsProperties = new MetricsProperties();
+  private final PrometheusTextfileExporter exporter = new PrometheusTextfileExporter(meterRegistry,
+      metricsProperties);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldWriteMetricsToTextfileAtExit() throws IOException {
+    var textfile = tempDir.resolve("metrics/camunda-auth-cli.prom");
+    metricsProperties.setTextfile(textfile);
+    meterRegistry.counter("bpms.authorizations.created", "bpms", "http://bpms-1").increment(5);
+
+    exporter.destroy();
+
+    assertThat(Files.readString(textfile, StandardCharsets.UTF_8))
+        .contains("bpms_authorizations_created_total{bpms=\"http://bpms-1\",} 5.0");
+    try (var files = Files.list(textfile.getParent())) {
+      assertThat(files).containsExactly(textfile);
+    }
+  }
+
+  @Test
+  void shouldNotWriteMetricsWhenTextfileIsNotSet() throws IOException {
+    exporter.destroy();
+
+    try (var files = Files.list(tempDir)) {
+      assertThat(files).isEmpty();
+    }
+  }
+}
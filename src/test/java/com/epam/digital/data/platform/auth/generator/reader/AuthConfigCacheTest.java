@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuthConfigCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  private AuthConfigCache authConfigCache;
+
+  private AuthConfigStreamReader authConfigStreamReader;
+
+  @BeforeEach
+  void init() {
+    authConfigStreamReader = spy(
+        new AuthConfigStreamReader(new ObjectMapper(new YAMLFactory()), new ParsingProperties()));
+    authConfigCache = new AuthConfigCache(authConfigStreamReader);
+  }
+
+  @Test
+  void shouldReturnCachedPlanWhenFilesAreNotChanged() throws IOException {
+    var file = writeConfig("officer.yml", "process-1", "officer");
+
+    var plan = authConfigCache.get(List.of(file.toFile()));
+
+    assertThat(authConfigCache.get(List.of(file.toFile()))).isSameAs(plan);
+    assertThat(plan.getProcessDefinitionIds()).containsExactly("process-1");
+  }
+
+  @Test
+  void shouldReadFilesAgainWhenAnyOfThemIsChanged() throws IOException {
+    var file = writeConfig("officer.yml", "process-1", "officer");
+    var plan = authConfigCache.get(List.of(file.toFile()));
+
+    writeConfig("officer.yml", "process-2", "officer");
+    file.toFile().setLastModified(file.toFile().lastModified() + 2000);
+
+    var changedPlan = authConfigCache.get(List.of(file.toFile()));
+    assertThat(changedPlan).isNotSameAs(plan);
+    assertThat(changedPlan.getProcessDefinitionIds()).containsExactly("process-2");
+  }
+
+  @Test
+  void shouldReadOnlyChangedFiles() throws IOException {
+    var officerConfig = writeConfig("officer.yml", "process-1", "officer");
+    var citizenConfig = writeConfig("citizen.yml", "process-2", "citizen");
+    var files = List.of(officerConfig.toFile(), citizenConfig.toFile());
+    authConfigCache.get(files);
+
+    writeConfig("citizen.yml", "process-3", "citizen");
+    citizenConfig.toFile().setLastModified(citizenConfig.toFile().lastModified() + 2000);
+    var plan = authConfigCache.get(files);
+
+    assertThat(plan.getProcessDefinitionIds()).containsExactly("process-1", "process-3");
+    verify(authConfigStreamReader, times(1)).readFile(eq(officerConfig.toFile()), any());
+    verify(authConfigStreamReader, times(2)).readFile(eq(citizenConfig.toFile()), any());
+  }
+
+  private Path writeConfig(String name, String processDefinitionId, String role)
+      throws IOException {
+    return Files.writeString(tempDir.resolve(name), String.format(
+        "authorization:\n"
+            + "  realm: 'officer'\n"
+            + "  process_definitions:\n"
+            + "    - process_definition_id: '%s'\n"
+            + "      process_name: 'name'\n"
+            + "      process_description: 'description'\n"
+            + "      roles:\n"
+            + "        - %s\n", processDefinitionId, role));
+  }
+}
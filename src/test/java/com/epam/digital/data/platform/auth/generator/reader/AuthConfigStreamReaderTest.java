@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.File;
+import java.net.URISyntaxException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AuthConfigStreamReaderTest {
+
+  private ParsingProperties parsingProperties;
+  private AuthConfigStreamReader reader;
+
+  @BeforeEach
+  public void init() {
+    parsingProperties = new ParsingProperties();
+    reader = new AuthConfigStreamReader(new ObjectMapper(new YAMLFactory()), parsingProperties);
+  }
+
+  @Test
+  void shouldReadPairsInFilesOrder() throws URISyntaxException {
+    parsingProperties.setParallelism(2);
+    var files = List.of(getFile("/test-config1.yml"), getFile("/test-config2.yml"),
+        getFile("/test-config3.yml"));
+
+    var pairs = readPairs(reader.fromFiles(files));
+
+    assertThat(pairs).containsExactly(
+        new ProcessDefinitionAuthDto("officer", "Process_1"),
+        new ProcessDefinitionAuthDto("citizen", "Process_1"),
+        new ProcessDefinitionAuthDto("officer", "business-process"),
+        new ProcessDefinitionAuthDto("citizen", "Process_2"),
+        new ProcessDefinitionAuthDto("head-officer", "Process_3"),
+        new ProcessDefinitionAuthDto("officer", "Process_3"));
+  }
+
+  @Test
+  void shouldReadFileAgainOnEveryIteration() throws URISyntaxException {
+    var source = reader.fromFiles(List.of(getFile("/test-config2.yml")));
+
+    assertThat(readPairs(source)).isEqualTo(readPairs(source));
+  }
+
+  @Test
+  void shouldThrowExceptionWhenConfigIsInvalid() throws URISyntaxException {
+    var invalidFile = getFile("/testToken.txt");
+    var files = List.of(getFile("/test-config1.yml"), invalidFile);
+
+    var exception = assertThrows(IllegalArgumentException.class, () -> reader.validate(files));
+
+    assertThat(exception.getMessage()).isEqualTo("Invalid configuration: " + invalidFile);
+  }
+
+  private List<ProcessDefinitionAuthDto> readPairs(AuthorizationSource source) {
+    var pairs = new ArrayList<ProcessDefinitionAuthDto>();
+    source.forEachPair((processDefinitionId, role) -> pairs.add(
+        new ProcessDefinitionAuthDto(role, processDefinitionId)));
+    return pairs;
+  }
+
+  private File getFile(String resource) throws URISyntaxException {
+    return Paths.get(AuthConfigStreamReaderTest.class.getResource(resource).toURI()).toFile();
+  }
+}
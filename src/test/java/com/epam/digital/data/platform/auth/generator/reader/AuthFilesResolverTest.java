@@ -0,0 +1,89 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuthFilesResolverTest {
+
+  @TempDir
+  Path tempDir;
+
+  private AuthFilesResolver authFilesResolver;
+
+  @BeforeEach
+  void init() throws IOException {
+    authFilesResolver = new AuthFilesResolver(new ParsingProperties());
+    for (var file : new String[]{"officer/b.yml", "officer/a.yaml", "officer/nested/c.yml",
+        "officer/readme.md", "citizen/d.yml", "citizen/e.yml"}) {
+      Files.createDirectories(tempDir.resolve(file).getParent());
+      Files.writeString(tempDir.resolve(file), "authorization: {}");
+    }
+  }
+
+  @Test
+  void shouldResolveDirectoriesToSortedConfigFiles() {
+    var files = authFilesResolver.resolve(path("officer") + "," + path("citizen"));
+
+    assertThat(files).containsExactly(file("officer/a.yaml"), file("officer/b.yml"),
+        file("officer/nested/c.yml"), file("citizen/d.yml"), file("citizen/e.yml"));
+  }
+
+  @Test
+  void shouldResolveGlobPatterns() {
+    var files = authFilesResolver.resolve(path("*") + "/*.{yml,yaml}");
+
+    assertThat(files).containsExactly(file("citizen/d.yml"), file("citizen/e.yml"),
+        file("officer/a.yaml"), file("officer/b.yml"));
+  }
+
+  @Test
+  void shouldKeepFilesOrderAndDropRepeatedFiles() {
+    var files = authFilesResolver.resolve(
+        path("citizen/e.yml") + "," + path("citizen") + "," + path("missing.yml"));
+
+    assertThat(files).containsExactly(file("citizen/e.yml"), file("citizen/d.yml"),
+        file("missing.yml"));
+  }
+
+  @Test
+  void shouldFailWhenPatternMatchesNothing() {
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> authFilesResolver.resolve(path("officer/*.json")));
+
+    assertThat(exception.getMessage())
+        .isEqualTo("Config files are not found: " + path("officer/*.json"));
+  }
+
+  private String path(String relativePath) {
+    return tempDir.resolve(relativePath).toString();
+  }
+
+  private File file(String relativePath) {
+    return tempDir.resolve(relativePath).toFile();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthDefinitionDto;
+import com.epam.digital.data.platform.auth.generator.dto.configuration.ProcessDefinitionAuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class AuthorizationPlanTest {
+
+  private final AuthorizationSource source = consumer -> {
+    consumer.accept("Process_1", "officer");
+    consumer.accept("Process_1", "citizen");
+    consumer.accept("Process_2", "officer");
+    consumer.accept("Process_1", "officer");
+  };
+
+  @Test
+  void shouldKeepDistinctPairsInSourceOrder() {
+    var plan = AuthorizationPlan.from(source);
+
+    var pairs = new ArrayList<String>();
+    plan.forEachPair((processDefinitionId, role) -> pairs.add(processDefinitionId + ":" + role));
+
+    assertThat(plan.size()).isEqualTo(3);
+    assertThat(pairs).containsExactly("Process_1:officer", "Process_1:citizen",
+        "Process_2:officer");
+    assertThat(plan.getCollapsedPairCount()).isEqualTo(1);
+    assertThat(plan.getCollapsedProcessDefinitionIds()).containsExactly("Process_1");
+  }
+
+  @Test
+  void shouldMergeProcessDefinitionsOfDifferentConfigs() {
+    var firstConfig = new AuthConfigDto(new AuthDefinitionDto(List.of(
+        new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "officer")),
+        new ProcessDefinitionAuthConfigDto("Process_2", List.of("citizen")))));
+    var secondConfig = new AuthConfigDto(new AuthDefinitionDto(List.of(
+        new ProcessDefinitionAuthConfigDto("Process_1", List.of("citizen", "officer")))));
+
+    var plan = AuthorizationPlan.from(AuthorizationSources.of(List.of(firstConfig, secondConfig)));
+
+    assertThat(plan.processDefinitionAuths(0, plan.size())).containsExactly(
+        new ProcessDefinitionAuthDto("officer", "Process_1"),
+        new ProcessDefinitionAuthDto("citizen", "Process_2"),
+        new ProcessDefinitionAuthDto("citizen", "Process_1"));
+    assertThat(plan.getCollapsedPairCount()).isEqualTo(2);
+    assertThat(plan.getCollapsedProcessDefinitionIds()).containsExactly("Process_1");
+  }
+
+  @Test
+  void shouldKeepDistinctValuesInDictionaries() {
+    var plan = AuthorizationPlan.from(source);
+
+    assertThat(plan.getRoles()).containsExactly("officer", "citizen");
+    assertThat(plan.getProcessDefinitionIds()).containsExactly("Process_1", "Process_2");
+    assertThat(plan.indexOfRole("citizen")).isEqualTo(1);
+    assertThat(plan.indexOfRole("head-officer")).isEqualTo(-1);
+    assertThat(plan.indexOfProcessDefinition("Process_2")).isEqualTo(1);
+    assertThat(plan.getProcessDefinitionIndex(2)).isEqualTo(1);
+    assertThat(plan.getRoleIndex(2)).isZero();
+  }
+
+  @Test
+  void shouldCreateAuthorizationsOfPairsRange() {
+    var plan = AuthorizationPlan.from(source);
+
+    assertThat(plan.processDefinitionAuths(1, 3)).isEqualTo(List.of(
+        new ProcessDefinitionAuthDto("citizen", "Process_1"),
+        new ProcessDefinitionAuthDto("officer", "Process_2")));
+    assertThrows(IndexOutOfBoundsException.class, () -> plan.processDefinitionAuths(2, 4));
+  }
+
+  @Test
+  void shouldNotCopyPlan() {
+    var plan = AuthorizationPlan.from(source);
+
+    assertThat(AuthorizationPlan.from(plan)).isSameAs(plan);
+    assertThat(plan.buffered()).isSameAs(plan);
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuthorizationSnapshotStoreTest {
+
+  @TempDir
+  Path tempDir;
+
+  private AuthorizationSnapshotStore authorizationSnapshotStore;
+  private Path snapshotFile;
+
+  @BeforeEach
+  void init() {
+    authorizationSnapshotStore = new AuthorizationSnapshotStore(
+        new AuthConfigStreamReader(new ObjectMapper(new YAMLFactory()), new ParsingProperties()));
+    snapshotFile = tempDir.resolve("authorizations.bin");
+  }
+
+  @Test
+  void shouldReadWrittenPlan() {
+    var plan = AuthorizationPlan.from(consumer -> {
+      consumer.accept("Process_1", "officer");
+      consumer.accept("Process_1", "citizen");
+      consumer.accept("Процес_2", "officer");
+      consumer.accept(null, "citizen");
+    });
+
+    authorizationSnapshotStore.write(plan, snapshotFile);
+    var readPlan = authorizationSnapshotStore.read(snapshotFile);
+
+    assertThat(pairs(readPlan)).isEqualTo(pairs(plan));
+    assertThat(readPlan.getProcessDefinitionIds()).isEqualTo(plan.getProcessDefinitionIds());
+    assertThat(readPlan.getRoles()).isEqualTo(plan.getRoles());
+    assertThat(readPlan.indexOfProcessDefinition("Процес_2")).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReadEmptyPlan() {
+    authorizationSnapshotStore.write(AuthorizationPlan.from(consumer -> {
+    }), snapshotFile);
+
+    assertThat(authorizationSnapshotStore.read(snapshotFile).size()).isZero();
+  }
+
+  @Test
+  void shouldRejectCorruptedSnapshot() throws IOException {
+    writeSnapshot();
+    var bytes = Files.readAllBytes(snapshotFile);
+    bytes[bytes.length - 1] ^= 1;
+    Files.write(snapshotFile, bytes);
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> authorizationSnapshotStore.read(snapshotFile));
+
+    assertThat(exception.getMessage())
+        .isEqualTo("Invalid authorization snapshot " + snapshotFile + ": checksum mismatch");
+  }
+
+  @Test
+  void shouldRejectTruncatedSnapshot() throws IOException {
+    writeSnapshot();
+    var bytes = Files.readAllBytes(snapshotFile);
+    Files.write(snapshotFile, Arrays.copyOf(bytes, bytes.length - 4));
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> authorizationSnapshotStore.read(snapshotFile));
+
+    assertThat(exception.getMessage())
+        .isEqualTo("Invalid authorization snapshot " + snapshotFile + ": payload is truncated");
+  }
+
+  @Test
+  void shouldRejectSnapshotOfAnotherVersion() throws IOException {
+    writeSnapshot();
+    var bytes = Files.readAllBytes(snapshotFile);
+    ByteBuffer.wrap(bytes).putInt(4, AuthorizationSnapshotStore.VERSION + 1);
+    Files.write(snapshotFile, bytes);
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> authorizationSnapshotStore.read(snapshotFile));
+
+    assertThat(exception.getMessage()).isEqualTo("Invalid authorization snapshot " + snapshotFile
+        + ": format version 2 is not supported");
+  }
+
+  @Test
+  void shouldRejectFileThatIsNotSnapshot() throws IOException {
+    Files.writeString(snapshotFile, "authorization:\n  realm: 'officer'\n");
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> authorizationSnapshotStore.read(snapshotFile));
+
+    assertThat(exception.getMessage())
+        .isEqualTo("Invalid authorization snapshot " + snapshotFile + ": not a snapshot");
+  }
+
+  private void writeSnapshot() {
+    authorizationSnapshotStore.write(AuthorizationPlan.from(consumer -> {
+      consumer.accept("Process_1", "officer");
+      consumer.accept("Process_2", "citizen");
+    }), snapshotFile);
+  }
+
+  private List<String> pairs(AuthorizationSource authorizationSource) {
+    var pairs = new ArrayList<String>();
+    BiConsumer<String, String> consumer = (processDefinitionId, role) ->
+        pairs.add(processDefinitionId + ":" + role);
+    authorizationSource.forEachPair(consumer);
+    return pairs;
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.reader;
+
+import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
+import java.util.List;
+
+/**
+ * Sources of pairs of configs built in tests, the cli itself reads pairs from files without
+ * building {@link AuthConfigDto}.
+ */
+public final class AuthorizationSources {
+
+  private AuthorizationSources() {
+  }
+
+  public static AuthorizationSource of(List<AuthConfigDto> authConfigDtos) {
+    return consumer -> authConfigDtos.stream()
+        .flatMap(ac -> ac.getAuthorization().getProcessDefinitions().stream())
+        .forEach(pdAuthConfig -> pdAuthConfig.getRoles()
+            .forEach(role -> consumer.accept(pdAuthConfig.getProcessDefinitionId(), role)));
+  }
+}
@@ -18,25 +18,51 @@ package com.epam.digital.data.platform.auth.generator.runner;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.auth.generator.BaseTest;
-import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
-import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthDefinitionDto;
-import com.epam.digital.data.platform.auth.generator.dto.configuration.ProcessDefinitionAuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
+import com.epam.digital.data.platform.auth.generator.config.properties.ParsingProperties;
+import com.epam.digital.data.platform.auth.generator.daemon.AuthFilesWatcher;
+import com.epam.digital.data.platform.auth.generator.daemon.DaemonServer;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyRequestDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.DaemonSettingsDto;
+import com.epam.digital.data.platform.auth.generator.dto.apply.ApplyResultDto;
+import com.epam.digital.data.platform.auth.generator.dto.delta.AuthorizationDeltaDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.reader.AuthConfigStreamReader;
+import com.epam.digital.data.platform.auth.generator.reader.AuthFilesResolver;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSnapshotStore;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import com.epam.digital.data.platform.auth.generator.service.ApplyService;
 import com.epam.digital.data.platform.auth.generator.service.AuthService;
+import com.epam.digital.data.platform.auth.generator.state.ApplyStateStore;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.StringJoiner;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.boot.ApplicationArguments;
 
@@ -45,19 +71,36 @@ class BpmsCamundaAuthCliRunnerTest extends BaseTest {
   @Mock
   private AuthService authService;
   @Mock
+  private DaemonServer daemonServer;
+  @Mock
+  private AuthFilesWatcher authFilesWatcher;
+  @Mock
   private ApplicationArguments args;
+  private AuthorizationSnapshotStore authorizationSnapshotStore;
+
+  @TempDir
+  Path tempDir;
 
   private BpmsCamundaAuthCliRunner runner;
+  private String tokenFilePath;
 
   @BeforeEach
   public void init() throws URISyntaxException {
     var ymlObjectMapper = new ObjectMapper(new YAMLFactory());
     ymlObjectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-    var tokenFilePath = Paths.get(BpmsCamundaAuthCliRunnerTest.class.getResource("/testToken.txt").toURI()).toString();
+    tokenFilePath = Paths.get(BpmsCamundaAuthCliRunnerTest.class.getResource("/testToken.txt").toURI()).toString();
     var config1 = Paths.get(BpmsCamundaAuthCliRunnerTest.class.getResource("/test-config1.yml").toURI()).toString();
     var config2 = Paths.get(BpmsCamundaAuthCliRunnerTest.class.getResource("/test-config2.yml").toURI()).toString();
     var authFilesPaths =  new StringJoiner(",").add(config1).add(config2).toString();
-    runner = new BpmsCamundaAuthCliRunner(authService, ymlObjectMapper);
+    var authConfigStreamReader = new AuthConfigStreamReader(ymlObjectMapper,
+        new ParsingProperties());
+    authorizationSnapshotStore = new AuthorizationSnapshotStore(authConfigStreamReader);
+    runner = new BpmsCamundaAuthCliRunner(new ApplyService(authService, authConfigStreamReader,
+        new ApplyStateStore(), new BatchProperties(), new SimpleMeterRegistry()),
+        new ApplyRequestParser(new AuthFilesResolver(new ParsingProperties())), daemonServer,
+        authFilesWatcher, authorizationSnapshotStore, new ObjectMapper());
+    lenient().when(args.getOptionValues("DAEMON_PORT")).thenReturn(null);
+    lenient().when(args.getOptionValues("AUTH_SNAPSHOT")).thenReturn(null);
     lenient().when(args.getOptionValues("BPMS_URL")).thenReturn(List.of(bpmsUrl));
     lenient().when(args.getOptionValues("BPMS_TOKEN")).thenReturn(List.of(tokenFilePath));
     lenient().when(args.getOptionValues("AUTH_FILES")).thenReturn(List.of(authFilesPaths));
@@ -65,20 +108,223 @@ class BpmsCamundaAuthCliRunnerTest extends BaseTest {
 
   @Test
   void shouldCleanAndCreateAuthorizationsBasedOnConfigFiles() throws IOException {
-    AuthConfigDto authConfigDto1 = new AuthConfigDto(
-        new AuthDefinitionDto(List.of(
-            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "citizen")),
-            new ProcessDefinitionAuthConfigDto("business-process", List.of("officer")))
-        ));
-    AuthConfigDto authConfigDto2 = new AuthConfigDto(
-        new AuthDefinitionDto(List.of(
-            new ProcessDefinitionAuthConfigDto("Process_2", List.of("citizen"))
-        )));
+    var expectedPairs = List.of(
+        new ProcessDefinitionAuthDto("officer", "Process_1"),
+        new ProcessDefinitionAuthDto("citizen", "Process_1"),
+        new ProcessDefinitionAuthDto("officer", "business-process"),
+        new ProcessDefinitionAuthDto("citizen", "Process_2"));
+    var sourceCaptor = ArgumentCaptor.forClass(AuthorizationSource.class);
+
+    runner.run(args);
+
+    verify(authService).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(bpmsUrl), eq("token"), sourceCaptor.capture(),
+        any());
+    var pairs = new ArrayList<ProcessDefinitionAuthDto>();
+    sourceCaptor.getValue().forEachPair((processDefinitionId, role) -> pairs.add(
+        new ProcessDefinitionAuthDto(role, processDefinitionId)));
+    assertThat(pairs).isEqualTo(expectedPairs);
+  }
+
+  @Test
+  void shouldStartDaemonInsteadOfApplyingWhenPortIsSet() throws IOException {
+    var secretFile = Files.writeString(tempDir.resolve("daemon-secret.txt"), "secret\n");
+    when(args.getOptionValues("DAEMON_PORT")).thenReturn(List.of("8787"));
+    when(args.getOptionValues("DAEMON_SECRET")).thenReturn(List.of(secretFile.toString()));
+    var settingsCaptor = ArgumentCaptor.forClass(DaemonSettingsDto.class);
+
+    runner.run(args);
+
+    verify(daemonServer).start(settingsCaptor.capture());
+    assertThat(settingsCaptor.getValue().getPort()).isEqualTo(8787);
+    assertThat(settingsCaptor.getValue().getSecret()).isEqualTo("secret");
+    assertThat(settingsCaptor.getValue().getBpmsUrls()).isEqualTo(List.of(bpmsUrl));
+    assertThat(settingsCaptor.getValue().getTokenFiles())
+        .isEqualTo(List.of(Path.of(tokenFilePath)));
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldWatchConfigFilesInsteadOfApplyingWhenWatchIsSet() throws IOException {
+    lenient().when(args.containsOption("WATCH")).thenReturn(true);
+    var requestCaptor = ArgumentCaptor.forClass(ApplyRequestDto.class);
+
+    runner.run(args);
+
+    verify(authFilesWatcher).watch(requestCaptor.capture());
+    assertThat(requestCaptor.getValue().getTargets().get(0).getUrl()).isEqualTo(bpmsUrl);
+    assertThat(requestCaptor.getValue().getAuthFiles().size()).isEqualTo(2);
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldCompileSnapshotWithoutApplyingAuthorizations() throws IOException {
+    var snapshotFile = tempDir.resolve("authorizations.bin");
+    when(args.getNonOptionArgs()).thenReturn(List.of("compile"));
+    when(args.getOptionValues("AUTH_SNAPSHOT")).thenReturn(List.of(snapshotFile.toString()));
+
+    runner.run(args);
+
+    var plan = authorizationSnapshotStore.read(snapshotFile);
+    assertThat(plan.getProcessDefinitionIds())
+        .isEqualTo(List.of("Process_1", "business-process", "Process_2"));
+    assertThat(plan.size()).isEqualTo(4);
+    verifyNoInteractions(authService);
+  }
+
+  @Test
+  void shouldApplySnapshotInsteadOfConfigFiles() throws IOException {
+    var snapshotFile = tempDir.resolve("authorizations.bin");
+    when(args.getNonOptionArgs()).thenReturn(List.of("compile"));
+    when(args.getOptionValues("AUTH_SNAPSHOT")).thenReturn(List.of(snapshotFile.toString()));
+    runner.run(args);
+    when(args.getNonOptionArgs()).thenReturn(List.of());
+    lenient().when(args.getOptionValues("AUTH_FILES")).thenReturn(null);
+    var sourceCaptor = ArgumentCaptor.forClass(AuthorizationSource.class);
+
+    runner.run(args);
+
+    verify(authService).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(bpmsUrl), eq("token"), sourceCaptor.capture(),
+        any());
+    var pairs = new ArrayList<ProcessDefinitionAuthDto>();
+    sourceCaptor.getValue().forEachPair((processDefinitionId, role) -> pairs.add(
+        new ProcessDefinitionAuthDto(role, processDefinitionId)));
+    assertThat(pairs).isEqualTo(List.of(
+        new ProcessDefinitionAuthDto("officer", "Process_1"),
+        new ProcessDefinitionAuthDto("citizen", "Process_1"),
+        new ProcessDefinitionAuthDto("officer", "business-process"),
+        new ProcessDefinitionAuthDto("citizen", "Process_2")));
+  }
+
+  @Test
+  void shouldSyncAuthorizationsInSyncMode() throws IOException {
+    when(args.getOptionValues("MODE")).thenReturn(List.of("sync"));
+    when(authService.syncAuthorizations(anyString(), anyString(), any()))
+        .thenReturn(new ApplyResultDto());
 
     runner.run(args);
 
-    verify(authService).cleanAuthorizations(bpmsUrl, "token");
-    verify(authService).createAuthorizations(bpmsUrl, "token", List.of(authConfigDto1, authConfigDto2));
+    verify(authService).syncAuthorizations(anyString(), anyString(), any());
+    verify(authService, never()).cleanAuthorizations(anyString(), anyString(), any());
+  }
+
+  @Test
+  void shouldWritePlanWithoutApplyingAuthorizationsInPlanMode() throws IOException {
+    var planFile = tempDir.resolve("plan.json");
+    lenient().when(args.getOptionValues("MODE")).thenReturn(List.of("plan"));
+    lenient().when(args.getOptionValues("PLAN_FILE")).thenReturn(List.of(planFile.toString()));
+    var delta = AuthorizationDeltaDto.builder()
+        .processDefinitionsToCreate(List.of(new ProcessDefinitionAuthDto("citizen", "Process_2")))
+        .processInstanceRolesToCreate(List.of("citizen"))
+        .authorizationsToDelete(List.of(new AuthResponseDto("1", "officer", "Process_3", 6,
+            Set.of("READ", "CREATE_INSTANCE"))))
+        .build();
+    when(authService.planAuthorizations(eq(bpmsUrl), eq("token"), any())).thenReturn(delta);
+
+    runner.run(args);
+
+    var report = new ObjectMapper().readTree(planFile.toFile());
+    assertThat(report.size()).isEqualTo(1);
+    assertThat(report.get(0).get("bpmsUrl").asText()).isEqualTo(bpmsUrl);
+    assertThat(report.get(0).get("status").asText()).isEqualTo("PLANNED");
+    assertThat(report.get(0).get("deleted").asLong()).isEqualTo(1);
+    assertThat(report.get(0).get("created").asLong()).isEqualTo(2);
+    assertThat(report.get(0).at("/delta/authorizationsToDelete/0/id").asText()).isEqualTo("1");
+    verify(authService, never()).cleanAuthorizations(anyString(), anyString(), any());
+    verify(authService, never()).createAuthorizations(anyString(), anyString(), any(), any());
+    verify(authService, never()).syncAuthorizations(anyString(), anyString(), any());
+  }
+
+  @Test
+  void shouldApplyConfigurationToAllTargets() throws IOException {
+    var otherBpmsUrl = "http://localhost:8082";
+    when(args.getOptionValues("BPMS_URL")).thenReturn(List.of(bpmsUrl + "," + otherBpmsUrl));
+    when(args.getOptionValues("BPMS_TOKEN")).thenReturn(List.of(tokenFilePath, tokenFilePath));
+
+    runner.run(args);
+
+    verify(authService).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(bpmsUrl), eq("token"), any(), any());
+    verify(authService).cleanAuthorizations(eq(otherBpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(otherBpmsUrl), eq("token"), any(), any());
+  }
+
+  @Test
+  void shouldApplyConfigurationToOtherTargetsWhenOneFails() {
+    var otherBpmsUrl = "http://localhost:8082";
+    when(args.getOptionValues("BPMS_URL")).thenReturn(List.of(bpmsUrl, otherBpmsUrl));
+    when(args.getOptionValues("BPMS_TOKEN")).thenReturn(List.of(tokenFilePath, tokenFilePath));
+    when(authService.cleanAuthorizations(eq(bpmsUrl), anyString(), any()))
+        .thenThrow(new IllegalStateException("Bpms is not available"));
+    when(authService.cleanAuthorizations(eq(otherBpmsUrl), anyString(), any())).thenReturn(1L);
+
+    var exception = assertThrows(IllegalStateException.class,
+        () -> runner.run(args));
+
+    assertThat(exception.getMessage()).isEqualTo("Authorizations are not applied to 1 of 2 bpms");
+    verify(authService, never()).createAuthorizations(eq(bpmsUrl), anyString(), any(), any());
+    verify(authService).createAuthorizations(eq(otherBpmsUrl), eq("token"), any(), any());
+  }
+
+  @Test
+  void shouldThrowExceptionWhenNumberOfTargetsAndTokensDiffers() {
+    when(args.getOptionValues("BPMS_URL")).thenReturn(List.of(bpmsUrl, "http://localhost:8082"));
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> runner.run(args));
+
+    assertThat(exception.getMessage())
+        .isEqualTo("Number of bpms urls (2) doesn't match number of bpms tokens (1)");
+    verify(authService, never()).cleanAuthorizations(anyString(), anyString(), any());
+  }
+
+  @Test
+  void shouldThrowExceptionWhenModeIsUnknown() {
+    when(args.getOptionValues("MODE")).thenReturn(List.of("unknown"));
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> runner.run(args));
+
+    assertThat(exception.getMessage()).isEqualTo("Unknown apply mode: unknown");
+  }
+
+  @Test
+  void shouldSkipApplyWhenConfigurationIsNotChanged() throws IOException {
+    var stateFile = tempDir.resolve("state.properties").toString();
+    lenient().when(args.getOptionValues("STATE_FILE")).thenReturn(List.of(stateFile));
+
+    runner.run(args);
+    runner.run(args);
+
+    verify(authService).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService).createAuthorizations(eq(bpmsUrl), eq("token"), any(), any());
+  }
+
+  @Test
+  void shouldApplyUnchangedConfigurationWhenForced() throws IOException {
+    var stateFile = tempDir.resolve("state.properties").toString();
+    lenient().when(args.getOptionValues("STATE_FILE")).thenReturn(List.of(stateFile));
+
+    runner.run(args);
+    when(args.containsOption("FORCE")).thenReturn(true);
+    lenient().when(args.getOptionValues("FORCE")).thenReturn(List.of());
+    runner.run(args);
+
+    verify(authService, times(2)).cleanAuthorizations(eq(bpmsUrl), eq("token"), any());
+    verify(authService, times(2)).createAuthorizations(eq(bpmsUrl), eq("token"), any(), any());
+  }
+
+  @Test
+  void shouldThrowExceptionWhenAuthFileIsInvalid() throws URISyntaxException {
+    var invalidConfig = Paths.get(BpmsCamundaAuthCliRunnerTest.class.getResource("/testToken.txt").toURI()).toString();
+    when(args.getOptionValues("AUTH_FILES")).thenReturn(List.of(invalidConfig));
+
+    var exception = assertThrows(IllegalArgumentException.class,
+        () -> runner.run(args));
+
+    assertThat(exception.getMessage()).isEqualTo("Invalid configuration: " + invalidConfig);
+    verify(authService, never()).cleanAuthorizations(anyString(), anyString(), any());
   }
 
   @Test
@@ -16,19 +16,38 @@
 
 package com.epam.digital.data.platform.auth.generator.service;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.epam.digital.data.platform.auth.generator.BaseTest;
 import com.epam.digital.data.platform.auth.generator.client.BpmsRestClient;
+import com.epam.digital.data.platform.auth.generator.config.properties.BatchProperties;
 import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthConfigDto;
 import com.epam.digital.data.platform.auth.generator.dto.configuration.AuthDefinitionDto;
 import com.epam.digital.data.platform.auth.generator.dto.configuration.ProcessDefinitionAuthConfigDto;
+import com.epam.digital.data.platform.auth.generator.dto.rest.AuthResponseDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.CountResultDto;
 import com.epam.digital.data.platform.auth.generator.dto.rest.ProcessDefinitionAuthDto;
+import com.epam.digital.data.platform.auth.generator.enums.AuthResourceType;
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSources;
+import com.epam.digital.data.platform.auth.generator.state.ApplyJournal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 
 class BpmsAuthServiceImplTest extends BaseTest {
@@ -36,11 +55,17 @@ class BpmsAuthServiceImplTest extends BaseTest {
   @Mock
   private BpmsRestClient bpmsRestClient;
 
+  @TempDir
+  Path tempDir;
+
+  private BatchProperties batchProperties;
   private AuthService authService;
 
   @BeforeEach
   public void init() {
-    authService = new BpmsAuthServiceImpl(bpmsRestClient);
+    batchProperties = new BatchProperties();
+    authService = new BpmsAuthServiceImpl(bpmsRestClient, batchProperties, Runnable::run,
+        new SimpleMeterRegistry());
   }
 
   @Test
@@ -78,11 +103,196 @@ class BpmsAuthServiceImplTest extends BaseTest {
 
     when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken,
         definitionBody)).thenReturn(new CountResultDto(4));
-    when(bpmsRestClient.createProcessInstanceAuthorizations(bpmsUrl, jwtToken, roles)).thenReturn(
-        new CountResultDto(2));
-    authService.createAuthorizations(bpmsUrl, jwtToken, List.of(authConfigDto1, authConfigDto2));
+    when(bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken, roles))
+        .thenReturn(CompletableFuture.completedFuture(new CountResultDto(2)));
+    authService.createAuthorizations(bpmsUrl, jwtToken,
+        AuthorizationSources.of(List.of(authConfigDto1, authConfigDto2)));
 
     verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, definitionBody);
-    verify(bpmsRestClient).createProcessInstanceAuthorizations(bpmsUrl, jwtToken, roles);
+    verify(bpmsRestClient).createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken, roles);
+  }
+
+  @Test
+  void shouldCreateProcessDefinitionAuthorizationsInChunks() {
+    batchProperties.setSize(2);
+    AuthConfigDto authConfigDto = new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "citizen")),
+            new ProcessDefinitionAuthConfigDto("Process_2", List.of("officer")))
+        ));
+    var firstChunk = List.of(new ProcessDefinitionAuthDto("officer", "Process_1"),
+        new ProcessDefinitionAuthDto("citizen", "Process_1"));
+    var secondChunk = List.of(new ProcessDefinitionAuthDto("officer", "Process_2"));
+
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, firstChunk))
+        .thenReturn(new CountResultDto(2));
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, secondChunk))
+        .thenReturn(new CountResultDto(1));
+    when(bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("officer", "citizen")))
+        .thenReturn(CompletableFuture.completedFuture(new CountResultDto(2)));
+
+    authService.createAuthorizations(bpmsUrl, jwtToken,
+        AuthorizationSources.of(List.of(authConfigDto)));
+
+    verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, firstChunk);
+    verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, secondChunk);
+  }
+
+  @Test
+  void shouldSkipChunksConfirmedByInterruptedRun() {
+    batchProperties.setSize(1);
+    var source = AuthorizationSources.of(List.of(new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "citizen")))))));
+    var firstChunk = List.of(new ProcessDefinitionAuthDto("officer", "Process_1"));
+    var secondChunk = List.of(new ProcessDefinitionAuthDto("citizen", "Process_1"));
+    when(bpmsRestClient.deleteAuthorizations(bpmsUrl, jwtToken)).thenReturn(new CountResultDto(5));
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, firstChunk))
+        .thenReturn(new CountResultDto(1));
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, secondChunk))
+        .thenThrow(new IllegalStateException("evicted"));
+    when(bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("officer", "citizen")))
+        .thenReturn(CompletableFuture.completedFuture(new CountResultDto(2)));
+    try (var journal = ApplyJournal.open(tempDir, bpmsUrl, "plan")) {
+      authService.cleanAuthorizations(bpmsUrl, jwtToken, journal);
+      assertThrows(IllegalStateException.class,
+          () -> authService.createAuthorizations(bpmsUrl, jwtToken, source, journal));
+    }
+
+    doReturn(new CountResultDto(1)).when(bpmsRestClient)
+        .createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, secondChunk);
+    try (var journal = ApplyJournal.open(tempDir, bpmsUrl, "plan")) {
+      authService.cleanAuthorizations(bpmsUrl, jwtToken, journal);
+      authService.createAuthorizations(bpmsUrl, jwtToken, source, journal);
+    }
+
+    verify(bpmsRestClient).deleteAuthorizations(bpmsUrl, jwtToken);
+    verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, firstChunk);
+    verify(bpmsRestClient, times(2)).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken,
+        secondChunk);
+    verify(bpmsRestClient).createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("officer", "citizen"));
+  }
+
+  @Test
+  void shouldCreateProcessInstanceAuthorizationsWhileProcessDefinitionsAreSent() {
+    var source = AuthorizationSources.of(List.of(new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer")))))));
+    var piAuthCount = new CompletableFuture<CountResultDto>();
+    when(bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("officer"))).thenReturn(piAuthCount);
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken,
+        List.of(new ProcessDefinitionAuthDto("officer", "Process_1")))).thenAnswer(invocation -> {
+          // process-instance request is already sent and still in flight
+          assertThat(piAuthCount).isNotDone();
+          piAuthCount.complete(new CountResultDto(1));
+          return new CountResultDto(1);
+        });
+
+    var createdCount = authService.createAuthorizations(bpmsUrl, jwtToken, source);
+
+    assertThat(createdCount).isEqualTo(2);
+  }
+
+  @Test
+  void shouldSyncOnlyChangedAuthorizations() {
+    AuthConfigDto authConfigDto = new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "citizen")),
+            new ProcessDefinitionAuthConfigDto("Process_2", List.of("officer")))
+        ));
+    var definitionPermissions = Set.of("READ", "CREATE_INSTANCE");
+    var instancePermissions = Set.of("CREATE");
+    var unchangedDefinitionAuth = new AuthResponseDto("1", "officer", "Process_1", 6,
+        definitionPermissions);
+    var staleDefinitionAuth = new AuthResponseDto("2", "officer", "Process_3", 6,
+        definitionPermissions);
+    var adminDefinitionAuth = new AuthResponseDto("3", "camunda-admin", "*", 6, Set.of("ALL"));
+    var unchangedInstanceAuth = new AuthResponseDto("4", "officer", "*", 8, instancePermissions);
+    var staleInstanceAuth = new AuthResponseDto("5", "head-officer", "*", 8, instancePermissions);
+
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_DEFINITION))
+        .thenReturn(Stream.of(unchangedDefinitionAuth, staleDefinitionAuth, adminDefinitionAuth));
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_INSTANCE))
+        .thenReturn(Stream.of(unchangedInstanceAuth, staleInstanceAuth));
+    var definitionBody = List.of(new ProcessDefinitionAuthDto("citizen", "Process_1"),
+        new ProcessDefinitionAuthDto("officer", "Process_2"));
+    when(bpmsRestClient.createProcessDefinitionAuthorizations(bpmsUrl, jwtToken,
+        definitionBody)).thenReturn(new CountResultDto(2));
+    when(bpmsRestClient.createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("citizen")))
+        .thenReturn(CompletableFuture.completedFuture(new CountResultDto(1)));
+
+    var result = authService.syncAuthorizations(bpmsUrl, jwtToken,
+        AuthorizationSources.of(List.of(authConfigDto)));
+
+    assertThat(result.getDeleted()).isEqualTo(2);
+    assertThat(result.getCreated()).isEqualTo(3);
+    var createThenDelete = inOrder(bpmsRestClient);
+    createThenDelete.verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl,
+        jwtToken, definitionBody);
+    createThenDelete.verify(bpmsRestClient).deleteAuthorization(bpmsUrl, jwtToken, "2");
+    createThenDelete.verify(bpmsRestClient).deleteAuthorization(bpmsUrl, jwtToken, "5");
+    verify(bpmsRestClient, never()).deleteAuthorization(bpmsUrl, jwtToken, "1");
+    verify(bpmsRestClient, never()).deleteAuthorization(bpmsUrl, jwtToken, "3");
+    verify(bpmsRestClient, never()).deleteAuthorization(bpmsUrl, jwtToken, "4");
+    verify(bpmsRestClient, never()).deleteAuthorizations(anyString(), anyString());
+    verify(bpmsRestClient).createProcessDefinitionAuthorizations(bpmsUrl, jwtToken, definitionBody);
+    verify(bpmsRestClient).createProcessInstanceAuthorizationsAsync(bpmsUrl, jwtToken,
+        List.of("citizen"));
+  }
+
+  @Test
+  void shouldPlanAuthorizationsWithoutChangingBpms() {
+    AuthConfigDto authConfigDto = new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer", "citizen")))
+        ));
+    var staleDefinitionAuth = new AuthResponseDto("2", "officer", "Process_3", 6,
+        Set.of("READ", "CREATE_INSTANCE"));
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_DEFINITION))
+        .thenReturn(Stream.of(new AuthResponseDto("1", "officer", "Process_1", 6,
+            Set.of("READ", "CREATE_INSTANCE")), staleDefinitionAuth));
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_INSTANCE))
+        .thenReturn(Stream.of(new AuthResponseDto("4", "officer", "*", 8, Set.of("CREATE"))));
+
+    var delta = authService.planAuthorizations(bpmsUrl, jwtToken,
+        AuthorizationSources.of(List.of(authConfigDto)));
+
+    assertThat(delta.getAuthorizationsToDelete()).containsExactly(staleDefinitionAuth);
+    assertThat(delta.getProcessDefinitionsToCreate())
+        .containsExactly(new ProcessDefinitionAuthDto("citizen", "Process_1"));
+    assertThat(delta.getProcessInstanceRolesToCreate()).containsExactly("citizen");
+    verify(bpmsRestClient, never()).deleteAuthorization(anyString(), anyString(), anyString());
+    verify(bpmsRestClient, never()).deleteAuthorizations(anyString(), anyString());
+    verify(bpmsRestClient, never()).createProcessDefinitionAuthorizations(anyString(), anyString(),
+        any());
+    verify(bpmsRestClient, never()).createProcessInstanceAuthorizationsAsync(anyString(),
+        anyString(), any());
+  }
+
+  @Test
+  void shouldNotSendCreatesWhenAuthorizationsAreUpToDate() {
+    AuthConfigDto authConfigDto = new AuthConfigDto(
+        new AuthDefinitionDto(List.of(
+            new ProcessDefinitionAuthConfigDto("Process_1", List.of("officer")))
+        ));
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_DEFINITION))
+        .thenReturn(Stream.of(new AuthResponseDto("1", "officer", "Process_1", 6,
+            Set.of("READ", "CREATE_INSTANCE"))));
+    when(bpmsRestClient.getAuthorizations(bpmsUrl, jwtToken, AuthResourceType.PROCESS_INSTANCE))
+        .thenReturn(Stream.of(new AuthResponseDto("2", "officer", "*", 8, Set.of("CREATE"))));
+
+    authService.syncAuthorizations(bpmsUrl, jwtToken,
+        AuthorizationSources.of(List.of(authConfigDto)));
+
+    verify(bpmsRestClient, never()).deleteAuthorization(anyString(), anyString(), anyString());
+    verify(bpmsRestClient, never()).createProcessDefinitionAuthorizations(anyString(), anyString(),
+        any());
+    verify(bpmsRestClient, never()).createProcessInstanceAuthorizationsAsync(anyString(),
+        anyString(), any());
   }
 }
\ No newline at end of file
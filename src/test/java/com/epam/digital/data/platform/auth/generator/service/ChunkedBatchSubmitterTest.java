@@ -0,0 +1,85 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ChunkedBatchSubmitterTest {
+
+  @Test
+  void shouldSendItemsInChunksAndSumCounts() {
+    var chunks = new ArrayList<List<Integer>>();
+    var submitter = new ChunkedBatchSubmitter<Integer>(3, 1, Runnable::run, chunk -> {
+      chunks.add(chunk);
+      return chunk.size();
+    });
+
+    IntStream.range(0, 7).forEach(submitter::add);
+    var count = submitter.await();
+
+    assertThat(count).isEqualTo(7);
+    assertThat(chunks).containsExactly(List.of(0, 1, 2), List.of(3, 4, 5), List.of(6));
+  }
+
+  @Test
+  void shouldNotExceedMaxInFlightChunks() {
+    var executor = Executors.newFixedThreadPool(8);
+    var inFlight = new AtomicInteger();
+    var maxObservedInFlight = new AtomicInteger();
+    var submitter = new ChunkedBatchSubmitter<Integer>(1, 2, executor, chunk -> {
+      maxObservedInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      try {
+        Thread.sleep(5);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      inFlight.decrementAndGet();
+      return 1;
+    });
+
+    IntStream.range(0, 20).forEach(submitter::add);
+    var count = submitter.await();
+    executor.shutdown();
+
+    assertThat(count).isEqualTo(20);
+    assertThat(maxObservedInFlight.get()).isLessThanOrEqualTo(2);
+  }
+
+  @Test
+  void shouldRethrowChunkFailure() {
+    var submitter = new ChunkedBatchSubmitter<Integer>(2, 1, Runnable::run, chunk -> {
+      throw new IllegalStateException("bpms is unavailable");
+    });
+
+    var exception = assertThrows(IllegalStateException.class, () -> {
+      submitter.add(1);
+      submitter.add(2);
+      submitter.add(3);
+      submitter.await();
+    });
+
+    assertThat(exception.getMessage()).isEqualTo("bpms is unavailable");
+  }
+}
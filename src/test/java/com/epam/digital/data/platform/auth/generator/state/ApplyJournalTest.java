@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ApplyJournalTest {
+
+  private static final String BPMS_URL = "http://bpms";
+  private static final String OTHER_BPMS_URL = "http://other-bpms";
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldSkipStepsCompletedByPreviousRun() {
+    var performedSteps = new AtomicInteger();
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      journal.runOnce("clean", () -> {
+        performedSteps.incrementAndGet();
+        return 10;
+      });
+    }
+
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      var cleanCount = journal.runOnce("clean", () -> {
+        performedSteps.incrementAndGet();
+        return 0;
+      });
+      var createCount = journal.runOnce("create", () -> {
+        performedSteps.incrementAndGet();
+        return 5;
+      });
+
+      assertThat(cleanCount).isEqualTo(10);
+      assertThat(createCount).isEqualTo(5);
+    }
+    assertThat(performedSteps.get()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldPerformAgainStepWithPartiallyWrittenLine() throws IOException {
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      journal.runOnce("clean", () -> 10);
+    }
+    // "create 123" with its checksum was cut off by a killed process
+    Files.writeString(journalFile(), "create 12", StandardCharsets.UTF_8,
+        StandardOpenOption.APPEND);
+    var performedSteps = new AtomicInteger();
+
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      assertThat(journal.runOnce("clean", performedSteps::incrementAndGet)).isEqualTo(10);
+      assertThat(journal.runOnce("create", () -> {
+        performedSteps.incrementAndGet();
+        return 123;
+      })).isEqualTo(123);
+    }
+
+    assertThat(performedSteps.get()).isEqualTo(1);
+    var lines = Files.readAllLines(journalFile());
+    assertThat(lines).hasSize(3);
+    assertThat(lines.get(1)).isEqualTo("create 12");
+    assertThat(lines.get(2)).startsWith("create 123 ");
+  }
+
+  @Test
+  void shouldRecordAsyncStepWhenItIsCompleted() {
+    var step = new CompletableFuture<Long>();
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      var count = journal.runOnceAsync("process-instance", () -> step);
+      step.complete(3L);
+      assertThat(count.join()).isEqualTo(3);
+    }
+
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      var count = journal.runOnceAsync("process-instance",
+          () -> CompletableFuture.failedFuture(new IllegalStateException("not skipped")));
+      assertThat(count.join()).isEqualTo(3);
+    }
+  }
+
+  @Test
+  void shouldDeleteJournalWhenPlanIsApplied() {
+    var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan");
+    journal.runOnce("clean", () -> 1);
+
+    journal.complete();
+
+    assertThat(tempDir).isEmptyDirectory();
+  }
+
+  @Test
+  void shouldNotResumePlanAfterAnotherPlanOfTheSameBpmsIsStarted() throws IOException {
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "first-plan")) {
+      journal.runOnce("clean", () -> 10);
+    }
+    try (var journal = ApplyJournal.open(tempDir, OTHER_BPMS_URL, "first-plan")) {
+      journal.runOnce("clean", () -> 20);
+    }
+    ApplyJournal.open(tempDir, BPMS_URL, "second-plan").complete();
+
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "first-plan")) {
+      assertThat(journal.runOnce("clean", () -> 0)).isZero();
+    }
+    try (var journal = ApplyJournal.open(tempDir, OTHER_BPMS_URL, "first-plan")) {
+      assertThat(journal.runOnce("clean", () -> 0)).isEqualTo(20);
+    }
+  }
+
+  @Test
+  void shouldDiscardJournalsOfBpms() {
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      journal.runOnce("clean", () -> 10);
+    }
+
+    ApplyJournal.discard(tempDir, BPMS_URL);
+
+    try (var journal = ApplyJournal.open(tempDir, BPMS_URL, "plan")) {
+      assertThat(journal.runOnce("clean", () -> 0)).isZero();
+    }
+  }
+
+  private Path journalFile() throws IOException {
+    try (var files = Files.list(tempDir)) {
+      var journals = files.collect(Collectors.toList());
+      assertThat(journals).hasSize(1);
+      return journals.get(0);
+    }
+  }
+}
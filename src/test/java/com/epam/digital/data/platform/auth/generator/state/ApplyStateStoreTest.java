@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.state;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ApplyStateStoreTest {
+
+  private final ApplyStateStore applyStateStore = new ApplyStateStore();
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldStoreFingerprintPerBpmsUrl() {
+    var stateFile = tempDir.resolve("state/applied.properties");
+
+    assertThat(applyStateStore.isApplied(stateFile, "http://bpms-1", "hash-1")).isFalse();
+
+    applyStateStore.markApplied(stateFile, "http://bpms-1", "hash-1");
+    applyStateStore.markApplied(stateFile, "http://bpms-2", "hash-2");
+
+    assertThat(applyStateStore.isApplied(stateFile, "http://bpms-1", "hash-1")).isTrue();
+    assertThat(applyStateStore.isApplied(stateFile, "http://bpms-2", "hash-2")).isTrue();
+    assertThat(applyStateStore.isApplied(stateFile, "http://bpms-2", "hash-1")).isFalse();
+  }
+}
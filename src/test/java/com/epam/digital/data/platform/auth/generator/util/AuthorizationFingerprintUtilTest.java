@@ -0,0 +1,55 @@
+/*
+ * Copyright 2023 EPAM Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.epam.digital.data.platform.auth.generator.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.epam.digital.data.platform.auth.generator.reader.AuthorizationSource;
+import org.junit.jupiter.api.Test;
+
+class AuthorizationFingerprintUtilTest {
+
+  private static final String BPMS_URL = "http://localhost:8081";
+
+  @Test
+  void shouldNotDependOnPairsOrderAndDuplicates() {
+    AuthorizationSource source = consumer -> {
+      consumer.accept("Process_1", "officer");
+      consumer.accept("Process_2", "citizen");
+    };
+    AuthorizationSource reorderedSource = consumer -> {
+      consumer.accept("Process_2", "citizen");
+      consumer.accept("Process_1", "officer");
+      consumer.accept("Process_2", "citizen");
+    };
+
+    assertThat(AuthorizationFingerprintUtil.fingerprint(BPMS_URL, source))
+        .isEqualTo(AuthorizationFingerprintUtil.fingerprint(BPMS_URL, reorderedSource));
+  }
+
+  @Test
+  void shouldDependOnPairsAndBpmsUrl() {
+    AuthorizationSource source = consumer -> consumer.accept("Process_1", "officer");
+    AuthorizationSource changedSource = consumer -> consumer.accept("Process_1", "citizen");
+
+    var fingerprint = AuthorizationFingerprintUtil.fingerprint(BPMS_URL, source);
+
+    assertThat(fingerprint).hasSize(64)
+        .isNotEqualTo(AuthorizationFingerprintUtil.fingerprint(BPMS_URL, changedSource))
+        .isNotEqualTo(AuthorizationFingerprintUtil.fingerprint("http://localhost:8082", source));
+  }
+}